@@ -0,0 +1,83 @@
+package com.checkout.payment.gateway;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs throughput benchmarks at 1 to 128 threads and prints a scalability curve for each: the
+ * throughput at every thread count, the speed-up over one thread, and the efficiency (speed-up
+ * per thread, 1.0 being linear scaling).
+ *
+ * <pre>
+ * ./gradlew jmhJar
+ * java -cp build/libs/*-jmh.jar com.checkout.payment.gateway.ScalabilityRunner [regex] [threads]
+ * </pre>
+ *
+ * <p>The regex selects benchmarks (default: the repository and service benchmarks); threads is
+ * a comma-separated list (default 1,2,4,8,16,32,64,128).
+ */
+public final class ScalabilityRunner {
+
+  private static final String DEFAULT_BENCHMARKS =
+      "PaymentsRepositoryBenchmark|PaymentGatewayServiceBenchmark";
+  private static final String DEFAULT_THREADS = "1,2,4,8,16,32,64,128";
+
+  private ScalabilityRunner() {
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    String benchmarks = args.length > 0 ? args[0] : DEFAULT_BENCHMARKS;
+    List<Integer> threadCounts = new ArrayList<>();
+    for (String threads : (args.length > 1 ? args[1] : DEFAULT_THREADS).split(",")) {
+      threadCounts.add(Integer.parseInt(threads.trim()));
+    }
+
+    // benchmark + params -> threads -> ops per unit of time
+    Map<String, Map<Integer, Double>> curves = new LinkedHashMap<>();
+    String unit = "";
+    for (int threads : threadCounts) {
+      Options options = new OptionsBuilder()
+          .include(benchmarks)
+          .threads(threads)
+          .build();
+      Collection<RunResult> results = new Runner(options).run();
+      for (RunResult result : results) {
+        curves.computeIfAbsent(label(result), key -> new TreeMap<>())
+            .put(threads, result.getPrimaryResult().getScore());
+        unit = result.getPrimaryResult().getScoreUnit();
+      }
+    }
+    print(curves, unit);
+  }
+
+  private static String label(RunResult result) {
+    StringBuilder label = new StringBuilder(result.getParams().getBenchmark()
+        .replace("com.checkout.payment.gateway.", ""));
+    for (String key : result.getParams().getParamsKeys()) {
+      label.append(' ').append(key).append('=').append(result.getParams().getParam(key));
+    }
+    return label.toString();
+  }
+
+  private static void print(Map<String, Map<Integer, Double>> curves, String unit) {
+    for (Map.Entry<String, Map<Integer, Double>> curve : curves.entrySet()) {
+      System.out.printf("%n%s%n%8s %16s %9s %11s%n", curve.getKey(), "threads", unit, "speed-up",
+          "efficiency");
+      Double single = curve.getValue().get(1);
+      for (Map.Entry<Integer, Double> point : curve.getValue().entrySet()) {
+        double speedUp = single == null ? Double.NaN : point.getValue() / single;
+        System.out.printf("%8d %16.1f %9.2f %11.2f%n", point.getKey(), point.getValue(), speedUp,
+            speedUp / point.getKey());
+      }
+    }
+  }
+}
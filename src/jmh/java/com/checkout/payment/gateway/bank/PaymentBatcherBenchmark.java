@@ -0,0 +1,88 @@
+package com.checkout.payment.gateway.bank;
+
+import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
+import com.checkout.payment.gateway.bank.model.BankBatchPaymentResult;
+import com.checkout.payment.gateway.deadline.Deadline;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput and per-payment latency of batched authorization against a simulated bank whose
+ * round trip costs a fixed 1 ms plus 10 us per payment, for a range of batch windows.
+ * A window of {@code -1} calls the simulated bank once per payment, without batching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(64)
+public class PaymentBatcherBenchmark {
+
+  private static final long ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long PER_PAYMENT_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+  @Param({"-1", "0", "100", "500", "2000"})
+  long windowMicros;
+
+  @Param({"32"})
+  int maxSize;
+
+  private PaymentBatcher batcher;
+  private final BankPaymentRequest request =
+      new BankPaymentRequest("2222405343248877", "04/2030", "GBP", 100, "123");
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if (windowMicros >= 0) {
+      batcher = new PaymentBatcher(new BankBatchPolicy(true, maxSize, windowMicros, 16),
+          PaymentBatcherBenchmark::simulatedBank);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    if (batcher != null) {
+      batcher.close();
+    }
+  }
+
+  @Benchmark
+  public BankBatchPaymentResult authorize() {
+    Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+    if (batcher == null) {
+      return simulatedBank(List.of(request), deadline).get(0);
+    }
+    return batcher.submit(request, deadline);
+  }
+
+  private static List<BankBatchPaymentResult> simulatedBank(List<BankPaymentRequest> payments,
+      Deadline deadline) {
+    LockSupport.parkNanos(ROUND_TRIP_NANOS + PER_PAYMENT_NANOS * payments.size());
+    List<BankBatchPaymentResult> results = new ArrayList<>(payments.size());
+    for (int i = 0; i < payments.size(); i++) {
+      BankBatchPaymentResult response = new BankBatchPaymentResult();
+      response.setAuthorized(true);
+      results.add(response);
+    }
+    return results;
+  }
+}
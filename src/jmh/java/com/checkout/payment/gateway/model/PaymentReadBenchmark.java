@@ -0,0 +1,83 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read path of {@code GET /payments/{id}} before and after pre-rendering: look a payment up and
+ * write its JSON body, either by serializing a stored {@link PostPaymentResponse} with Jackson
+ * or by copying the bytes carried by a {@link PaymentRecord}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PaymentReadBenchmark {
+
+  @Param({"100000"})
+  int payments;
+
+  private UUID[] ids;
+  private final Map<UUID, PostPaymentResponse> responses = new ConcurrentHashMap<>();
+  private final Map<UUID, PaymentRecord> records = new ConcurrentHashMap<>();
+  private ObjectWriter writer;
+
+  @State(Scope.Thread)
+  public static class Body {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+  }
+
+  @Setup
+  public void setUp() {
+    writer = new ObjectMapper().writerFor(PostPaymentResponse.class);
+    ids = new UUID[payments];
+    for (int i = 0; i < payments; i++) {
+      PaymentRecord record = new PaymentRecord(UUID.randomUUID(), PaymentStatus.AUTHORIZED,
+          "8877", 4, 2030, "GBP", 100L + i);
+      ids[i] = record.getId();
+      records.put(record.getId(), record);
+      responses.put(record.getId(), record.toResponse());
+    }
+  }
+
+  @Benchmark
+  public int jacksonPerRead(Body body) throws IOException {
+    body.out.reset();
+    writer.writeValue(body.out, responses.get(randomId()));
+    return body.out.size();
+  }
+
+  @Benchmark
+  public int preRendered(Body body) throws IOException {
+    body.out.reset();
+    records.get(randomId()).writeJsonTo(body.out);
+    return body.out.size();
+  }
+
+  private UUID randomId() {
+    return ids[ThreadLocalRandom.current().nextInt(payments)];
+  }
+}
@@ -0,0 +1,80 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decode cost of {@link PostPaymentRequest} and encode cost of {@link PostPaymentResponse} for
+ * the JSON and CBOR wire formats. Message sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+  @Param({"json", "cbor"})
+  String format;
+
+  private ObjectReader requestReader;
+  private ObjectWriter responseWriter;
+  private byte[] encodedRequest;
+  private PostPaymentResponse response;
+
+  @Setup
+  public void setUp() throws IOException {
+    ObjectMapper mapper = "cbor".equals(format) ? new CBORMapper() : new ObjectMapper();
+    requestReader = mapper.readerFor(PostPaymentRequest.class);
+    responseWriter = mapper.writerFor(PostPaymentResponse.class);
+
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(100L);
+    request.setCvv("123");
+    encodedRequest = mapper.writeValueAsBytes(request);
+
+    response = new PostPaymentResponse();
+    response.setId(UUID.randomUUID());
+    response.setStatus(PaymentStatus.AUTHORIZED);
+    response.setCardNumberLastFour("8877");
+    response.setExpiryMonth(4);
+    response.setExpiryYear(2030);
+    response.setCurrency("GBP");
+    response.setAmount(100);
+
+    System.out.printf("%n%s: request %d bytes, response %d bytes%n", format,
+        encodedRequest.length, responseWriter.writeValueAsBytes(response).length);
+  }
+
+  @Benchmark
+  public PostPaymentRequest decodeRequest() throws IOException {
+    return requestReader.readValue(encodedRequest);
+  }
+
+  @Benchmark
+  public byte[] encodeResponse() throws IOException {
+    return responseWriter.writeValueAsBytes(response);
+  }
+}
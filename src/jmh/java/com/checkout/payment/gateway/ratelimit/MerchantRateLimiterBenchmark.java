@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one {@link MerchantRateLimiter#tryAcquire} call spread over many merchant keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MerchantRateLimiterBenchmark {
+
+  @Param({"1000", "100000"})
+  int keys;
+
+  private MerchantRateLimiter limiter;
+  private String[] apiKeys;
+
+  @Setup
+  public void setUp() {
+    limiter = new MerchantRateLimiter(false, 1_000_000, 1_000, keys * 2, 10_000);
+    apiKeys = new String[keys];
+    for (int i = 0; i < keys; i++) {
+      apiKeys[i] = "merchant-" + i;
+      limiter.tryAcquire(apiKeys[i]);
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long tryAcquire() {
+    return limiter.tryAcquire(apiKeys[ThreadLocalRandom.current().nextInt(keys)]);
+  }
+}
@@ -0,0 +1,67 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentRecord;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link PaymentsRepository} lookups, alone and mixed with 10% writes, over a
+ * pre-filled store. Writes re-store existing payments so the store does not grow during the run.
+ * Run it through {@code ScalabilityRunner} to get throughput per thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PaymentsRepositoryBenchmark {
+
+  @Param({"1000000"})
+  int payments;
+
+  private PaymentsRepository repository;
+  private PaymentRecord[] stored;
+
+  @Setup
+  public void setUp() {
+    repository = new PaymentsRepository();
+    stored = new PaymentRecord[payments];
+    for (int i = 0; i < payments; i++) {
+      PaymentRecord payment = new PaymentRecord(UUID.randomUUID(), PaymentStatus.AUTHORIZED,
+          "8877", 4, 2030, "GBP", 100L + i);
+      repository.add(payment);
+      stored[i] = payment;
+    }
+  }
+
+  @Benchmark
+  public Optional<PaymentRecord> get() {
+    return repository.get(stored[ThreadLocalRandom.current().nextInt(payments)].getId());
+  }
+
+  @Benchmark
+  public Optional<PaymentRecord> readMostly() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    PaymentRecord payment = stored[random.nextInt(payments)];
+    if (random.nextInt(10) == 0) {
+      repository.add(payment);
+      return Optional.of(payment);
+    }
+    return repository.get(payment.getId());
+  }
+}
@@ -0,0 +1,96 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.bank.AcquiringBankClient;
+import com.checkout.payment.gateway.bank.BankBatchPolicy;
+import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
+import com.checkout.payment.gateway.bank.model.BankPaymentResponse;
+import com.checkout.payment.gateway.currency.FxRates;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link PaymentGatewayService#processPayment} with a simulated bank that takes
+ * {@code bankLatencyMicros} per call. With a blocking bank call, throughput should grow linearly
+ * with threads until something in the service serializes them. Run it through
+ * {@code ScalabilityRunner} to get throughput per thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PaymentGatewayServiceBenchmark {
+
+  @Param({"100", "1000"})
+  long bankLatencyMicros;
+
+  @Param({"false", "true"})
+  boolean dedup;
+
+  private PaymentGatewayService service;
+
+  // A fresh store per iteration keeps memory flat however fast payments are stored
+  @Setup(Level.Iteration)
+  public void setUp() {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    DuplicatePaymentGuard guard = dedup
+        ? new DuplicatePaymentGuard(true, DuplicatePaymentGuard.Mode.JOIN, 2000, 64, 256, "salt",
+            meters)
+        : DuplicatePaymentGuard.disabled(meters);
+    service = new PaymentGatewayService(new PaymentsRepository(),
+        new SimulatedBank(TimeUnit.MICROSECONDS.toNanos(bankLatencyMicros)),
+        new PaymentEventLog(false, "", 1, 1, false, meters), guard, FxRates.disabled());
+  }
+
+  @Benchmark
+  public PostPaymentResponse processPayment() {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    // Distinct amounts so duplicate suppression, when enabled, sees distinct payments
+    request.setAmount(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+    request.setCvv("123");
+    return service.processPayment(request, "merchant-a", Deadline.after(Duration.ofSeconds(10)));
+  }
+
+  private static final class SimulatedBank extends AcquiringBankClient {
+    private final long latencyNanos;
+
+    private SimulatedBank(long latencyNanos) {
+      super(null, null, null, null, BankBatchPolicy.disabled(), new SimpleMeterRegistry());
+      this.latencyNanos = latencyNanos;
+    }
+
+    @Override
+    public BankPaymentResponse submitPayment(BankPaymentRequest request, Deadline deadline) {
+      LockSupport.parkNanos(latencyNanos);
+      BankPaymentResponse response = new BankPaymentResponse();
+      response.setAuthorized(true);
+      return response;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.checkout.payment.gateway.admin;
+
+import com.checkout.payment.gateway.exception.AdminAccessDeniedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits a request to the admin endpoints or the payment event stream only if it carries the
+ * configured admin token. The comparison takes the same time wherever the tokens differ, so the
+ * token cannot be guessed a byte at a time.
+ */
+public class AdminAccessInterceptor implements HandlerInterceptor {
+
+  public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+  private final byte[] token;
+
+  public AdminAccessInterceptor(String token) {
+    if (token == null || token.isBlank()) {
+      throw new IllegalArgumentException(
+          "admin.token must be set when admin.enabled or payment-events.enabled is true");
+    }
+    this.token = token.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    String presented = request.getHeader(ADMIN_TOKEN_HEADER);
+    if (presented == null
+        || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+      throw new AdminAccessDeniedException("Missing or wrong admin token");
+    }
+    return true;
+  }
+}
@@ -1,11 +1,24 @@
 package com.checkout.payment.gateway.bank;
 
+import com.checkout.payment.gateway.bank.model.BankBatchPaymentRequest;
+import com.checkout.payment.gateway.bank.model.BankBatchPaymentResponse;
+import com.checkout.payment.gateway.bank.model.BankBatchPaymentResult;
 import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
 import com.checkout.payment.gateway.bank.model.BankPaymentResponse;
+import com.checkout.payment.gateway.deadline.Deadline;
 import com.checkout.payment.gateway.exception.AcquiringBankUnavailableException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.tracing.Tracing;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.net.ConnectException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
@@ -16,31 +29,214 @@ import org.springframework.web.client.RestTemplate;
 public class AcquiringBankClient {
 
   private static final Logger LOG = LoggerFactory.getLogger(AcquiringBankClient.class);
+  private static final List<String> RETRY_OUTCOMES = List.of("success", "non_retryable",
+      "deadline_exceeded", "attempts_exhausted", "budget_exhausted", "interrupted",
+      "batch_failed");
 
   private final RestTemplate restTemplate;
-  private final String baseUrl;
+  private final BankClientTuning tuning;
+  private final BankRetryPolicy retryPolicy;
+  private final RetryBudget retryBudget;
+  private final Map<String, DistributionSummary> retriesByOutcome;
+  private final Map<String, DistributionSummary> batchRetriesByOutcome;
+  private final PaymentBatcher batcher;
 
-  public AcquiringBankClient(RestTemplate restTemplate,
-      @Value("${acquiring-bank.base-url:http://localhost:8080}") String baseUrl) {
+  public AcquiringBankClient(RestTemplate restTemplate, BankClientTuning tuning,
+      BankRetryPolicy retryPolicy, RetryBudget retryBudget, BankBatchPolicy batchPolicy,
+      MeterRegistry meterRegistry) {
     this.restTemplate = restTemplate;
-    this.baseUrl = baseUrl;
+    this.tuning = tuning;
+    this.retryPolicy = retryPolicy;
+    this.retryBudget = retryBudget;
+    this.retriesByOutcome = retrySummaries(meterRegistry, "bank.payment.retries",
+        "Retries spent per payment sent to the bank, by final outcome");
+    this.batchRetriesByOutcome = retrySummaries(meterRegistry, "bank.batch.retries",
+        "Retries spent per batch call to the bank, by final outcome");
+    this.batcher = batchPolicy.isEnabled()
+        ? new PaymentBatcher(batchPolicy, this::submitBatch)
+        : null;
   }
 
-  public BankPaymentResponse submitPayment(BankPaymentRequest request) {
-    try {
-      ResponseEntity<BankPaymentResponse> response = restTemplate.postForEntity(
-          baseUrl + "/payments", request, BankPaymentResponse.class);
-      return response.getBody();
-    } catch (HttpStatusCodeException ex) {
-      // The simulator uses 503 to represent bank issues.
-      if (ex.getStatusCode().value() == 503) {
-        throw new AcquiringBankUnavailableException("Acquiring bank unavailable", ex);
+  /**
+   * Submits the payment, retrying safe failures while {@code deadline} allows. Each attempt's
+   * connect and read timeouts are narrowed to the time the deadline has left. When batching is
+   * enabled the payment travels to the bank in a batch with other concurrent payments.
+   */
+  public BankPaymentResponse submitPayment(BankPaymentRequest request, Deadline deadline) {
+    if (batcher != null) {
+      return submitBatched(request, deadline);
+    }
+    retryBudget.recordFirstAttempt();
+    return post("/payments", request, BankPaymentResponse.class, deadline, retriesByOutcome);
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+    if (batcher != null) {
+      batcher.close();
+    }
+  }
+
+  /**
+   * Batch calls that fail as a whole are retried inside {@link #post}. A single payment the bank
+   * answered with 503 is retried here on its own, against the same policy and budget as a single
+   * call, by queueing it for a later batch. The payment, not the batch call, counts as the first
+   * attempt towards the retry budget.
+   */
+  private BankPaymentResponse submitBatched(BankPaymentRequest request, Deadline deadline) {
+    retryBudget.recordFirstAttempt();
+    int retries = 0;
+    while (true) {
+      // Don't queue work nobody is waiting for
+      if (deadline.isExpired()) {
+        recordRetries(retriesByOutcome, retries, "deadline_exceeded");
+        throw new DeadlineExceededException("Deadline exceeded before calling acquiring bank");
+      }
+      BankBatchPaymentResult result;
+      try {
+        result = batcher.submit(request, deadline);
+      } catch (DeadlineExceededException ex) {
+        recordRetries(retriesByOutcome, retries, "deadline_exceeded");
+        throw ex;
+      } catch (RuntimeException ex) {
+        recordRetries(retriesByOutcome, retries, "batch_failed");
+        throw ex;
+      }
+      if (result.isSuccessful()) {
+        recordRetries(retriesByOutcome, retries, "success");
+        return result;
       }
-      LOG.warn("Bank responded with status {} and body {}", ex.getStatusCode(), ex.getResponseBodyAsString());
-      throw ex;
-    } catch (ResourceAccessException ex) {
-      throw new AcquiringBankUnavailableException("Could not reach acquiring bank", ex);
+      AcquiringBankUnavailableException failure = new AcquiringBankUnavailableException(
+          "Acquiring bank answered status " + result.getStatusCode() + " for batched payment");
+      if (result.getStatusCode() != 503) {
+        recordRetries(retriesByOutcome, retries, "non_retryable");
+        LOG.warn("Bank responded with status {} for batched payment", result.getStatusCode());
+        throw failure;
+      }
+      long started = Tracing.start();
+      String giveUpReason = awaitRetry(retries, deadline);
+      Tracing.stage("bank.backoff", started);
+      if (giveUpReason != null) {
+        recordRetries(retriesByOutcome, retries, giveUpReason);
+        throw failure;
+      }
+      retries++;
+      LOG.debug("Retrying batched payment after 503, retry {}", retries);
+    }
+  }
+
+  private List<BankBatchPaymentResult> submitBatch(List<BankPaymentRequest> payments,
+      Deadline deadline) {
+    BankBatchPaymentResponse response = post("/payments/batch",
+        new BankBatchPaymentRequest(payments), BankBatchPaymentResponse.class, deadline,
+        batchRetriesByOutcome);
+    return response == null ? null : response.getResults();
+  }
+
+  /**
+   * Posts {@code body}, retrying safe failures. The caller counts the first attempt towards the
+   * retry budget, once per payment however it travels.
+   */
+  private <T> T post(String path, Object body, Class<T> responseType, Deadline deadline,
+      Map<String, DistributionSummary> outcomes) {
+    int retries = 0;
+    while (true) {
+      long remainingMillis = deadline.remaining().toMillis();
+      if (remainingMillis <= 0) {
+        recordRetries(outcomes, retries, "deadline_exceeded");
+        throw new DeadlineExceededException("Deadline exceeded before calling acquiring bank");
+      }
+      AcquiringBankUnavailableException failure;
+      String url = tuning.current().getBaseUrl() + path;
+      try {
+        tuning.acquire(deadline);
+      } catch (DeadlineExceededException ex) {
+        recordRetries(outcomes, retries, "deadline_exceeded");
+        throw ex;
+      }
+      // Waiting for a call slot may have used up part of the budget
+      long callTimeoutMillis = Math.max(1, deadline.remaining().toMillis());
+      long started = Tracing.start();
+      try {
+        ResponseEntity<T> response = BankRequestFactory.withCallTimeout(
+            callTimeoutMillis, () -> restTemplate.postForEntity(url, body, responseType));
+        recordRetries(outcomes, retries, "success");
+        return response.getBody();
+      } catch (HttpStatusCodeException ex) {
+        // The simulator uses 503 to represent bank issues.
+        if (ex.getStatusCode().value() != 503) {
+          recordRetries(outcomes, retries, "non_retryable");
+          LOG.warn("Bank responded with status {} and body {}", ex.getStatusCode(), ex.getResponseBodyAsString());
+          throw ex;
+        }
+        failure = new AcquiringBankUnavailableException("Acquiring bank unavailable", ex);
+      } catch (ResourceAccessException ex) {
+        if (deadline.isExpired()) {
+          recordRetries(outcomes, retries, "deadline_exceeded");
+          throw new DeadlineExceededException("Deadline exceeded waiting for acquiring bank", ex);
+        }
+        failure = new AcquiringBankUnavailableException("Could not reach acquiring bank", ex);
+        // Only a refused connection proves the bank never saw the request; a timeout may not.
+        if (!(ex.getCause() instanceof ConnectException)) {
+          recordRetries(outcomes, retries, "non_retryable");
+          throw failure;
+        }
+      } finally {
+        Tracing.stage("bank.attempt", started);
+        tuning.release();
+      }
+
+      started = Tracing.start();
+      String giveUpReason = awaitRetry(retries, deadline);
+      Tracing.stage("bank.backoff", started);
+      if (giveUpReason != null) {
+        recordRetries(outcomes, retries, giveUpReason);
+        throw failure;
+      }
+      retries++;
+      LOG.debug("Retrying bank call after failure, retry {}", retries, failure.getCause());
     }
   }
-}
 
+  /**
+   * Sleeps for the next backoff if another attempt is allowed.
+   *
+   * @return null if the caller should retry, otherwise the reason it should give up
+   */
+  private String awaitRetry(int retries, Deadline deadline) {
+    if (retries + 1 >= retryPolicy.getMaxAttempts()) {
+      return "attempts_exhausted";
+    }
+    long backoff = retryPolicy.backoffNanos(retries);
+    if (backoff >= deadline.remainingNanos()) {
+      return "deadline_exceeded";
+    }
+    if (!retryBudget.tryAcquireRetry()) {
+      return "budget_exhausted";
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(backoff);
+      return null;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return "interrupted";
+    }
+  }
+
+  private static void recordRetries(Map<String, DistributionSummary> outcomes, int retries,
+      String outcome) {
+    outcomes.get(outcome).record(retries);
+  }
+
+  private static Map<String, DistributionSummary> retrySummaries(MeterRegistry meterRegistry,
+      String name, String description) {
+    Map<String, DistributionSummary> outcomes = new HashMap<>();
+    for (String outcome : RETRY_OUTCOMES) {
+      outcomes.put(outcome, DistributionSummary.builder(name)
+          .description(description)
+          .tag("outcome", outcome)
+          .register(meterRegistry));
+    }
+    return outcomes;
+  }
+}
@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.bank;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for coalescing concurrent authorizations into batch calls, for acquirers that offer a
+ * batch API. A batch is sent when it reaches {@code max-size} payments or when {@code window}
+ * has passed since its first payment arrived, whichever comes first.
+ */
+@Component
+public class BankBatchPolicy {
+
+  private final boolean enabled;
+  private final int maxSize;
+  private final Duration window;
+  private final int maxInFlight;
+
+  public BankBatchPolicy(
+      @Value("${acquiring-bank.batch.enabled:false}") boolean enabled,
+      @Value("${acquiring-bank.batch.max-size:32}") int maxSize,
+      @Value("${acquiring-bank.batch.window-micros:500}") long windowMicros,
+      @Value("${acquiring-bank.batch.max-in-flight:8}") int maxInFlight) {
+    this.enabled = enabled;
+    this.maxSize = Math.max(1, maxSize);
+    this.window = Duration.ofNanos(windowMicros * 1000);
+    this.maxInFlight = Math.max(1, maxInFlight);
+  }
+
+  public static BankBatchPolicy disabled() {
+    return new BankBatchPolicy(false, 1, 0, 1);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public Duration getWindow() {
+    return window;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+}
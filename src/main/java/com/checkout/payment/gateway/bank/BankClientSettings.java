@@ -0,0 +1,53 @@
+package com.checkout.payment.gateway.bank;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Immutable snapshot of the tunable bank client settings. */
+public final class BankClientSettings {
+
+  @JsonProperty("base_url")
+  private final String baseUrl;
+
+  @JsonProperty("connect_timeout_ms")
+  private final int connectTimeoutMs;
+
+  @JsonProperty("read_timeout_ms")
+  private final int readTimeoutMs;
+
+  @JsonProperty("max_concurrent_calls")
+  private final int maxConcurrentCalls;
+
+  public BankClientSettings(String baseUrl, int connectTimeoutMs, int readTimeoutMs,
+      int maxConcurrentCalls) {
+    this.baseUrl = baseUrl;
+    this.connectTimeoutMs = connectTimeoutMs;
+    this.readTimeoutMs = readTimeoutMs;
+    this.maxConcurrentCalls = maxConcurrentCalls;
+  }
+
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  public int getConnectTimeoutMs() {
+    return connectTimeoutMs;
+  }
+
+  public int getReadTimeoutMs() {
+    return readTimeoutMs;
+  }
+
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  @Override
+  public String toString() {
+    return "BankClientSettings{"
+        + "baseUrl='" + baseUrl + '\''
+        + ", connectTimeoutMs=" + connectTimeoutMs
+        + ", readTimeoutMs=" + readTimeoutMs
+        + ", maxConcurrentCalls=" + maxConcurrentCalls
+        + '}';
+  }
+}
@@ -0,0 +1,186 @@
+package com.checkout.payment.gateway.bank;
+
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.exception.InvalidSettingsException;
+import com.checkout.payment.gateway.model.BankClientSettingsRequest;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live, tunable settings for calls to the acquiring bank.
+ *
+ * <p>The current {@link BankClientSettings} sit in an {@link AtomicReference}. Each bank attempt
+ * reads it once, so an update applies to the next call and never to one already on the wire.
+ * Concurrency is capped by a semaphore. When the limit is lowered, in-flight calls keep their
+ * permits and new calls wait until the count drops below the new limit. The base URL may only
+ * point at an allowed host, so a settings change cannot send card data anywhere else.
+ */
+@Component
+public class BankClientTuning {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BankClientTuning.class);
+
+  private final AtomicReference<BankClientSettings> settings;
+  private final ResizableSemaphore permits;
+  private final Set<String> allowedHosts;
+
+  /**
+   * @param allowedHosts comma-separated hosts the base URL may use; blank allows only the host of
+   *     {@code baseUrl}
+   */
+  @Autowired
+  public BankClientTuning(
+      @Value("${acquiring-bank.base-url:http://localhost:8080}") String baseUrl,
+      @Value("${acquiring-bank.connect-timeout-ms:10000}") int connectTimeoutMs,
+      @Value("${acquiring-bank.read-timeout-ms:10000}") int readTimeoutMs,
+      @Value("${acquiring-bank.max-concurrent-calls:256}") int maxConcurrentCalls,
+      @Value("${acquiring-bank.allowed-hosts:}") String allowedHosts) {
+    BankClientSettings initial =
+        new BankClientSettings(baseUrl, connectTimeoutMs, readTimeoutMs, maxConcurrentCalls);
+    this.allowedHosts = parseHosts(allowedHosts, baseUrl);
+    throwIfInvalid(initial);
+    this.settings = new AtomicReference<>(initial);
+    this.permits = new ResizableSemaphore(maxConcurrentCalls);
+  }
+
+  /** Settings whose base URL may only use the host it starts with. */
+  public BankClientTuning(String baseUrl, int connectTimeoutMs, int readTimeoutMs,
+      int maxConcurrentCalls) {
+    this(baseUrl, connectTimeoutMs, readTimeoutMs, maxConcurrentCalls, "");
+  }
+
+  public BankClientSettings current() {
+    return settings.get();
+  }
+
+  /**
+   * Applies the non-null fields of {@code request} on top of the current settings as one atomic
+   * change.
+   *
+   * @throws InvalidSettingsException if the result would be invalid; nothing is changed
+   */
+  public synchronized BankClientSettings update(BankClientSettingsRequest request) {
+    BankClientSettings previous = settings.get();
+    BankClientSettings next = new BankClientSettings(
+        request.getBaseUrl() != null ? request.getBaseUrl() : previous.getBaseUrl(),
+        request.getConnectTimeoutMs() != null
+            ? request.getConnectTimeoutMs() : previous.getConnectTimeoutMs(),
+        request.getReadTimeoutMs() != null
+            ? request.getReadTimeoutMs() : previous.getReadTimeoutMs(),
+        request.getMaxConcurrentCalls() != null
+            ? request.getMaxConcurrentCalls() : previous.getMaxConcurrentCalls());
+    throwIfInvalid(next);
+    permits.resize(next.getMaxConcurrentCalls());
+    settings.set(next);
+    LOG.info("Bank client settings changed from {} to {}", previous, next);
+    return next;
+  }
+
+  /**
+   * Waits, within the deadline, for a free bank call slot. The caller must {@link #release()} it.
+   */
+  void acquire(Deadline deadline) {
+    try {
+      if (!permits.tryAcquire(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS)) {
+        throw new DeadlineExceededException("Deadline exceeded waiting for a bank call slot");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new DeadlineExceededException("Interrupted waiting for a bank call slot", ex);
+    }
+  }
+
+  void release() {
+    permits.release();
+  }
+
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  private void throwIfInvalid(BankClientSettings settings) {
+    List<String> errors = new ArrayList<>();
+    String host = hostOf(settings.getBaseUrl());
+    if (host == null) {
+      errors.add("base_url: must be an absolute http(s) URL");
+    } else if (!allowedHosts.contains(host)) {
+      errors.add("base_url: host " + host + " is not in acquiring-bank.allowed-hosts");
+    }
+    if (settings.getConnectTimeoutMs() <= 0) {
+      errors.add("connect_timeout_ms: must be positive");
+    }
+    if (settings.getReadTimeoutMs() <= 0) {
+      errors.add("read_timeout_ms: must be positive");
+    }
+    if (settings.getMaxConcurrentCalls() <= 0) {
+      errors.add("max_concurrent_calls: must be positive");
+    }
+    if (!errors.isEmpty()) {
+      throw new InvalidSettingsException(errors);
+    }
+  }
+
+  private static Set<String> parseHosts(String allowedHosts, String baseUrl) {
+    if (allowedHosts.isBlank()) {
+      String host = hostOf(baseUrl);
+      return host == null ? Set.of() : Set.of(host);
+    }
+    return Arrays.stream(allowedHosts.split(","))
+        .map(host -> host.trim().toLowerCase(Locale.ROOT))
+        .filter(host -> !host.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /** The lower-cased host of an absolute http(s) URL, or null if it is not one. */
+  private static String hostOf(String url) {
+    if (url == null) {
+      return null;
+    }
+    try {
+      URI uri = new URI(url);
+      if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme())
+          || uri.getHost() == null) {
+        return null;
+      }
+      return uri.getHost().toLowerCase(Locale.ROOT);
+    } catch (URISyntaxException ex) {
+      return null;
+    }
+  }
+
+  private static final class ResizableSemaphore extends Semaphore {
+
+    private int limit;
+
+    private ResizableSemaphore(int limit) {
+      super(limit, true);
+      this.limit = limit;
+    }
+
+    // Called under the owner's lock; reducePermits may drive the count negative, which simply
+    // holds back new acquirers until enough in-flight calls have released.
+    private void resize(int newLimit) {
+      if (newLimit > limit) {
+        release(newLimit - limit);
+      } else if (newLimit < limit) {
+        reducePermits(limit - newLimit);
+      }
+      limit = newLimit;
+    }
+  }
+}
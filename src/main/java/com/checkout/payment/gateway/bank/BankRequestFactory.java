@@ -0,0 +1,55 @@
+package com.checkout.payment.gateway.bank;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.function.Supplier;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+/**
+ * Request factory whose connect and read timeouts can be narrowed for a single call, so that a
+ * bank call never outlives the budget of the request that made it. The configured timeouts are
+ * read from the live settings for every connection, so changes apply to the next call.
+ */
+public class BankRequestFactory extends SimpleClientHttpRequestFactory {
+
+  private static final ThreadLocal<Long> CALL_TIMEOUT_MILLIS = new ThreadLocal<>();
+
+  private final Supplier<BankClientSettings> settings;
+
+  public BankRequestFactory(Supplier<BankClientSettings> settings) {
+    this.settings = settings;
+  }
+
+  /**
+   * Runs {@code call} with connect and read timeouts that together add up to at most
+   * {@code timeoutMillis}.
+   */
+  public static <T> T withCallTimeout(long timeoutMillis, Supplier<T> call) {
+    CALL_TIMEOUT_MILLIS.set(timeoutMillis);
+    try {
+      return call.get();
+    } finally {
+      CALL_TIMEOUT_MILLIS.remove();
+    }
+  }
+
+  @Override
+  protected void prepareConnection(HttpURLConnection connection, String httpMethod)
+      throws IOException {
+    super.prepareConnection(connection, httpMethod);
+    BankClientSettings current = settings.get();
+    int connectTimeout = current.getConnectTimeoutMs();
+    int readTimeout = current.getReadTimeoutMs();
+    Long callTimeout = CALL_TIMEOUT_MILLIS.get();
+    long configured = (long) connectTimeout + readTimeout;
+    if (callTimeout != null && callTimeout < configured) {
+      // A slow connect followed by a slow read must still fit in the budget, so split it in
+      // proportion to the configured timeouts. Zero means "no timeout" to HttpURLConnection, so
+      // never narrow down to it.
+      connectTimeout = (int) Math.max(1, callTimeout * connectTimeout / configured);
+      readTimeout = (int) Math.max(1, callTimeout - connectTimeout);
+    }
+    connection.setConnectTimeout(connectTimeout);
+    connection.setReadTimeout(readTimeout);
+  }
+}
@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.bank;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exponential backoff with full jitter for bank calls that failed before the bank accepted
+ * anything. The sleep before retry {@code n} is uniform in {@code [0, min(max, initial * 2^n))}.
+ * Retries also stop once the next backoff would overrun the request's deadline.
+ */
+@Component
+public class BankRetryPolicy {
+
+  private final int maxAttempts;
+  private final long initialBackoffNanos;
+  private final long maxBackoffNanos;
+
+  public BankRetryPolicy(
+      @Value("${acquiring-bank.retry.max-attempts:3}") int maxAttempts,
+      @Value("${acquiring-bank.retry.initial-backoff-ms:50}") long initialBackoffMs,
+      @Value("${acquiring-bank.retry.max-backoff-ms:1000}") long maxBackoffMs) {
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.initialBackoffNanos = Duration.ofMillis(initialBackoffMs).toNanos();
+    this.maxBackoffNanos = Duration.ofMillis(maxBackoffMs).toNanos();
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public long backoffNanos(int retry) {
+    long ceiling = initialBackoffNanos << Math.min(retry, 30);
+    if (ceiling <= 0 || ceiling > maxBackoffNanos) {
+      ceiling = maxBackoffNanos;
+    }
+    return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling);
+  }
+}
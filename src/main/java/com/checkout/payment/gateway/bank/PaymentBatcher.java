@@ -0,0 +1,186 @@
+package com.checkout.payment.gateway.bank;
+
+import com.checkout.payment.gateway.bank.model.BankBatchPaymentResult;
+import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.exception.AcquiringBankUnavailableException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces concurrent single-payment submissions into batch calls.
+ *
+ * <p>Callers block in {@link #submit} on their own result. One collector thread groups queued
+ * payments by size and time window and hands each batch to a small sender pool, so collecting
+ * the next batch does not wait on the previous round trip. Payments whose callers have already
+ * given up are dropped before a batch is sent, and a batch gets no more time than its least
+ * patient caller, so the bank does not go on authorizing payments nobody is waiting for. A
+ * result that still arrives after its caller gave up is logged rather than silently dropped.
+ *
+ * <p>Each caller receives its own payment's result, including a per-payment failure status, so
+ * one failed payment does not fail its neighbours. Only a batch call that fails as a whole, such
+ * as a transport error, is reported to every caller in the batch.
+ */
+class PaymentBatcher implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentBatcher.class);
+
+  interface BatchSender {
+    List<BankBatchPaymentResult> send(List<BankPaymentRequest> payments, Deadline deadline);
+  }
+
+  private final BatchSender sender;
+  private final int maxSize;
+  private final long windowNanos;
+  private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+  private final ExecutorService senders;
+  private final Thread collector;
+  private volatile boolean running = true;
+
+  PaymentBatcher(BankBatchPolicy policy, BatchSender sender) {
+    this.sender = sender;
+    this.maxSize = policy.getMaxSize();
+    this.windowNanos = policy.getWindow().toNanos();
+    AtomicInteger threadCount = new AtomicInteger();
+    this.senders = Executors.newFixedThreadPool(policy.getMaxInFlight(), r -> {
+      Thread thread = new Thread(r, "bank-batch-sender-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.collector = new Thread(this::collect, "bank-batch-collector");
+    this.collector.setDaemon(true);
+    this.collector.start();
+  }
+
+  BankBatchPaymentResult submit(BankPaymentRequest request, Deadline deadline) {
+    if (!running) {
+      throw new AcquiringBankUnavailableException("Bank batching is shut down");
+    }
+    Pending pending = new Pending(request, deadline);
+    queue.add(pending);
+    try {
+      return pending.result.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException ex) {
+      pending.result.cancel(false);
+      throw new DeadlineExceededException("Deadline exceeded waiting for bank batch");
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new AcquiringBankUnavailableException("Bank batch failed", ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      pending.result.cancel(false);
+      throw new AcquiringBankUnavailableException("Interrupted waiting for bank batch", ex);
+    }
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    running = false;
+    collector.join();
+    senders.shutdown();
+    senders.awaitTermination(30, TimeUnit.SECONDS);
+  }
+
+  private void collect() {
+    List<Pending> batch = new ArrayList<>(maxSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long flushAt = System.nanoTime() + windowNanos;
+        while (batch.size() < maxSize) {
+          long wait = flushAt - System.nanoTime();
+          Pending next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        List<Pending> toSend = List.copyOf(batch);
+        senders.execute(() -> send(toSend));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void send(List<Pending> batch) {
+    List<Pending> live = new ArrayList<>(batch.size());
+    for (Pending pending : batch) {
+      if (pending.result.isDone()) {
+        continue;
+      }
+      if (pending.deadline.isExpired()) {
+        pending.result.completeExceptionally(
+            new DeadlineExceededException("Deadline exceeded before bank batch was sent"));
+        continue;
+      }
+      live.add(pending);
+    }
+    if (live.isEmpty()) {
+      return;
+    }
+
+    // The batch gets only as long as its least patient caller allows, so no caller has given up
+    // on a payment the bank is still authorizing
+    Deadline deadline = live.get(0).deadline;
+    List<BankPaymentRequest> payments = new ArrayList<>(live.size());
+    for (Pending pending : live) {
+      payments.add(pending.request);
+      if (pending.deadline.isBefore(deadline)) {
+        deadline = pending.deadline;
+      }
+    }
+    try {
+      List<BankBatchPaymentResult> results = sender.send(payments, deadline);
+      if (results == null || results.size() != live.size()) {
+        throw new AcquiringBankUnavailableException(
+            "Bank batch response did not match the submitted payments");
+      }
+      for (int i = 0; i < live.size(); i++) {
+        BankBatchPaymentResult result = results.get(i);
+        if (result == null) {
+          live.get(i).result.completeExceptionally(new AcquiringBankUnavailableException(
+              "Bank batch response had no result for the payment"));
+        } else if (!live.get(i).result.complete(result)) {
+          LOG.warn("Bank answered a batched payment after its caller gave up: status {}, "
+              + "authorized {}, authorization code {}", result.getStatusCode(),
+              result.isAuthorized(), result.getAuthorizationCode());
+        }
+      }
+    } catch (RuntimeException ex) {
+      live.forEach(pending -> pending.result.completeExceptionally(ex));
+    }
+  }
+
+  private static final class Pending {
+    private final BankPaymentRequest request;
+    private final Deadline deadline;
+    private final CompletableFuture<BankBatchPaymentResult> result = new CompletableFuture<>();
+
+    private Pending(BankPaymentRequest request, Deadline deadline) {
+      this.request = request;
+      this.deadline = deadline;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.checkout.payment.gateway.bank;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps retries to a fraction of first attempts across all callers, so that retries cannot turn
+ * a bank outage into a multiple of the normal load.
+ *
+ * <p>Every first attempt deposits {@code ratio} of a token and every retry withdraws a whole one.
+ * The balance starts at, and is capped by, {@code min-retries} so that a quiet gateway can still
+ * retry a few isolated failures.
+ */
+@Component
+public class RetryBudget {
+
+  private static final long SCALE = 1000;
+
+  private final AtomicLong balance;
+  private final long deposit;
+  private final long cap;
+
+  public RetryBudget(
+      @Value("${acquiring-bank.retry.budget-ratio:0.1}") double ratio,
+      @Value("${acquiring-bank.retry.budget-min-retries:10}") int minRetries) {
+    this.deposit = Math.round(ratio * SCALE);
+    this.cap = Math.max(1, minRetries) * SCALE;
+    this.balance = new AtomicLong(cap);
+  }
+
+  public void recordFirstAttempt() {
+    balance.accumulateAndGet(deposit, (current, add) -> Math.min(cap, current + add));
+  }
+
+  public boolean tryAcquireRetry() {
+    while (true) {
+      long current = balance.get();
+      if (current < SCALE) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - SCALE)) {
+        return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.checkout.payment.gateway.bank.model;
+
+import java.util.List;
+
+public class BankBatchPaymentRequest {
+
+  private List<BankPaymentRequest> payments;
+
+  public BankBatchPaymentRequest() {}
+
+  public BankBatchPaymentRequest(List<BankPaymentRequest> payments) {
+    this.payments = payments;
+  }
+
+  public List<BankPaymentRequest> getPayments() {
+    return payments;
+  }
+
+  public void setPayments(List<BankPaymentRequest> payments) {
+    this.payments = payments;
+  }
+}
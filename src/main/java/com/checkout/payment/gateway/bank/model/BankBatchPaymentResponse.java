@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.bank.model;
+
+import java.util.List;
+
+/**
+ * Results of a batch authorization, in the same order as the submitted payments.
+ */
+public class BankBatchPaymentResponse {
+
+  private List<BankBatchPaymentResult> results;
+
+  public List<BankBatchPaymentResult> getResults() {
+    return results;
+  }
+
+  public void setResults(List<BankBatchPaymentResult> results) {
+    this.results = results;
+  }
+}
@@ -0,0 +1,25 @@
+package com.checkout.payment.gateway.bank.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One payment's outcome within a batch. The bank reports failures per payment with the status it
+ * would have answered a single call with, so one failure does not fail the rest of the batch.
+ */
+public class BankBatchPaymentResult extends BankPaymentResponse {
+
+  @JsonProperty("status_code")
+  private int statusCode = 200;
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public void setStatusCode(int statusCode) {
+    this.statusCode = statusCode;
+  }
+
+  public boolean isSuccessful() {
+    return statusCode >= 200 && statusCode < 300;
+  }
+}
@@ -12,12 +12,12 @@ public class BankPaymentRequest {
   private String expiryDate;
 
   private String currency;
-  private int amount;
+  private long amount;
   private String cvv;
 
   public BankPaymentRequest() {}
 
-  public BankPaymentRequest(String cardNumber, String expiryDate, String currency, int amount, String cvv) {
+  public BankPaymentRequest(String cardNumber, String expiryDate, String currency, long amount, String cvv) {
     this.cardNumber = cardNumber;
     this.expiryDate = expiryDate;
     this.currency = currency;
@@ -49,11 +49,11 @@ public class BankPaymentRequest {
     this.currency = currency;
   }
 
-  public int getAmount() {
+  public long getAmount() {
     return amount;
   }
 
-  public void setAmount(int amount) {
+  public void setAmount(long amount) {
     this.amount = amount;
   }
 
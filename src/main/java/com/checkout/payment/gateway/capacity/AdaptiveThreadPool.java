@@ -0,0 +1,157 @@
+package com.checkout.payment.gateway.capacity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resizes Tomcat's request thread pool to the load it actually sees.
+ *
+ * <p>{@link ThreadDemandFilter} reports how long each request held a thread. Every interval the
+ * completed requests and their total time go through {@link LittlesLawSizer}, and the result is
+ * applied as the connector's {@code maxThreads}, which Tomcat passes straight to its running
+ * executor. Request time is dominated by the bank call, so a slower bank raises the thread count
+ * and a faster one releases threads. The estimates and each decision are published as
+ * {@code tomcat.adaptive.*} metrics.
+ */
+@Component
+@ConditionalOnProperty(value = "server.adaptive-threads.enabled", havingValue = "true")
+public class AdaptiveThreadPool implements TomcatConnectorCustomizer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AdaptiveThreadPool.class);
+
+  private final LittlesLawSizer sizer;
+  private final long intervalMs;
+  private final int minSpareThreads;
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder busyNanos = new LongAdder();
+  private final Counter grown;
+  private final Counter shrunk;
+  private volatile AbstractProtocol<?> protocol;
+  private long lastAdjustedNanos = System.nanoTime();
+  private ScheduledExecutorService scheduler;
+
+  public AdaptiveThreadPool(
+      @Value("${server.adaptive-threads.min:20}") int minThreads,
+      @Value("${server.adaptive-threads.max:400}") int maxThreads,
+      @Value("${server.adaptive-threads.target-utilization:0.75}") double targetUtilization,
+      @Value("${server.adaptive-threads.smoothing:0.5}") double smoothing,
+      @Value("${server.adaptive-threads.interval-ms:5000}") long intervalMs,
+      @Value("${server.tomcat.threads.min-spare:10}") int minSpareThreads,
+      MeterRegistry meterRegistry) {
+    this.sizer = new LittlesLawSizer(minThreads, maxThreads, targetUtilization, smoothing);
+    this.intervalMs = intervalMs;
+    this.minSpareThreads = minSpareThreads;
+    this.grown = Counter.builder("tomcat.adaptive.resizes")
+        .description("Changes made to the request thread pool size")
+        .tag("direction", "up")
+        .register(meterRegistry);
+    this.shrunk = Counter.builder("tomcat.adaptive.resizes")
+        .description("Changes made to the request thread pool size")
+        .tag("direction", "down")
+        .register(meterRegistry);
+    Gauge.builder("tomcat.adaptive.arrival.rate", this, pool -> pool.sizer.arrivalsPerSecond())
+        .description("Smoothed requests per second seen by the request thread pool")
+        .register(meterRegistry);
+    Gauge.builder("tomcat.adaptive.service.time", this, pool -> pool.sizer.serviceSeconds())
+        .description("Smoothed time each request holds a thread")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    Gauge.builder("tomcat.adaptive.concurrency", this, pool -> pool.sizer.concurrency())
+        .description("Busy threads implied by Little's law")
+        .register(meterRegistry);
+    Gauge.builder("tomcat.adaptive.threads.target", this, AdaptiveThreadPool::maxThreads)
+        .description("Request thread pool size chosen by the adaptive controller")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void customize(Connector connector) {
+    if (connector.getProtocolHandler() instanceof AbstractProtocol<?> handler) {
+      protocol = handler;
+    } else {
+      LOG.warn("Connector protocol {} cannot be resized", connector.getProtocolHandler());
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "adaptive-thread-pool");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::adjustQuietly, intervalMs, intervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /** Called by {@link ThreadDemandFilter} when a request releases its thread. */
+  void record(long heldNanos) {
+    completed.increment();
+    busyNanos.add(heldNanos);
+  }
+
+  void adjust() {
+    AbstractProtocol<?> handler = protocol;
+    if (handler == null) {
+      return;
+    }
+    long now = System.nanoTime();
+    long interval = now - lastAdjustedNanos;
+    lastAdjustedNanos = now;
+    int current = handler.getMaxThreads();
+    int target = sizer.resize(completed.sumThenReset(), busyNanos.sumThenReset(), interval,
+        current);
+    if (target == current) {
+      return;
+    }
+    // Keep the configured spare threads, capped at the target because Tomcat's executor refuses
+    // a core size above its maximum; so lower the core first when shrinking, and last when growing
+    int minSpare = Math.min(minSpareThreads, target);
+    if (target > current) {
+      handler.setMaxThreads(target);
+      handler.setMinSpareThreads(minSpare);
+    } else {
+      handler.setMinSpareThreads(minSpare);
+      handler.setMaxThreads(target);
+    }
+    (target > current ? grown : shrunk).increment();
+    LOG.info("Request threads {} -> {} ({} req/s x {} ms = {} busy)", current, target,
+        Math.round(sizer.arrivalsPerSecond()), Math.round(sizer.serviceSeconds() * 1000),
+        Math.round(sizer.concurrency()));
+  }
+
+  private void adjustQuietly() {
+    try {
+      adjust();
+    } catch (RuntimeException ex) {
+      LOG.warn("Failed to resize request thread pool", ex);
+    }
+  }
+
+  private double maxThreads() {
+    AbstractProtocol<?> handler = protocol;
+    return handler == null ? Double.NaN : handler.getMaxThreads();
+  }
+}
@@ -0,0 +1,116 @@
+package com.checkout.payment.gateway.capacity;
+
+/**
+ * Picks a request thread pool size from Little's law: the average number of busy threads is the
+ * arrival rate times the time each request holds a thread. The pool is sized so that this
+ * concurrency uses {@code targetUtilization} of it, within {@code [minThreads, maxThreads]}.
+ *
+ * <p>Rates and service times are smoothed across intervals. The pool grows at once, because
+ * too few threads means requests wait at the socket, but shrinks in steps of at most a quarter
+ * and ignores small changes, so a short lull does not undo the capacity a burst needs. A
+ * saturated pool understates the arrival rate (requests waiting for a thread are not measured),
+ * so saturation grows the pool by half regardless of the estimate. Only one thread may call
+ * {@link #resize}; the estimates are published as one immutable snapshot, so any thread may read
+ * them.
+ */
+final class LittlesLawSizer {
+
+  private static final double SATURATED_UTILIZATION = 0.95;
+
+  private final int minThreads;
+  private final int maxThreads;
+  private final double targetUtilization;
+  private final double smoothing;
+  private volatile Estimate estimate = new Estimate(Double.NaN, Double.NaN);
+
+  LittlesLawSizer(int minThreads, int maxThreads, double targetUtilization, double smoothing) {
+    if (minThreads < 1 || maxThreads < minThreads) {
+      throw new IllegalArgumentException("Thread bounds must satisfy 1 <= min <= max");
+    }
+    if (targetUtilization <= 0 || targetUtilization > 1 || smoothing <= 0 || smoothing > 1) {
+      throw new IllegalArgumentException("Utilization and smoothing must be in (0, 1]");
+    }
+    this.minThreads = minThreads;
+    this.maxThreads = maxThreads;
+    this.targetUtilization = targetUtilization;
+    this.smoothing = smoothing;
+  }
+
+  /**
+   * Feeds one interval's measurements and returns the pool size for the next interval.
+   *
+   * @param requests requests completed in the interval
+   * @param busyNanos total time those requests held a thread
+   * @param intervalNanos length of the interval
+   * @param currentThreads pool size during the interval
+   */
+  int resize(long requests, long busyNanos, long intervalNanos, int currentThreads) {
+    if (intervalNanos <= 0) {
+      return clamp(currentThreads);
+    }
+    Estimate previous = estimate;
+    double arrivalsPerSecond = smooth(previous.arrivalsPerSecond, requests * 1e9 / intervalNanos);
+    // Without completions there is no new service time; keep the last one
+    double serviceSeconds = requests > 0
+        ? smooth(previous.serviceSeconds, busyNanos / 1e9 / requests)
+        : previous.serviceSeconds;
+    estimate = new Estimate(arrivalsPerSecond, serviceSeconds);
+
+    int ideal = clamp((int) Math.ceil(concurrency() / targetUtilization));
+    if ((double) busyNanos / intervalNanos >= currentThreads * SATURATED_UTILIZATION) {
+      ideal = clamp(Math.max(ideal, currentThreads + Math.max(1, currentThreads / 2)));
+    }
+    if (ideal >= currentThreads) {
+      return ideal;
+    }
+    int shrink = currentThreads - ideal;
+    if (shrink < Math.max(2, currentThreads / 10)) {
+      return clamp(currentThreads);
+    }
+    return clamp(Math.max(ideal, currentThreads - Math.max(1, currentThreads / 4)));
+  }
+
+  /** Smoothed requests per second. */
+  double arrivalsPerSecond() {
+    return estimate.arrivalsPerSecond();
+  }
+
+  /** Smoothed time a request holds a thread, in seconds. */
+  double serviceSeconds() {
+    return estimate.serviceSeconds();
+  }
+
+  /** Average number of busy threads implied by the smoothed rate and service time. */
+  double concurrency() {
+    Estimate current = estimate;
+    return current.arrivalsPerSecond() * current.serviceSeconds();
+  }
+
+  private double smooth(double previous, double sample) {
+    return Double.isNaN(previous) ? sample : previous + smoothing * (sample - previous);
+  }
+
+  private int clamp(int threads) {
+    return Math.max(minThreads, Math.min(maxThreads, threads));
+  }
+
+  /** Smoothed estimates from one interval; NaN until the first measurement. */
+  private static final class Estimate {
+
+    private final double arrivalsPerSecond;
+    private final double serviceSeconds;
+
+    private Estimate(double arrivalsPerSecond, double serviceSeconds) {
+      this.arrivalsPerSecond = arrivalsPerSecond;
+      this.serviceSeconds = serviceSeconds;
+    }
+
+    private double arrivalsPerSecond() {
+      return Double.isNaN(arrivalsPerSecond) ? 0 : arrivalsPerSecond;
+    }
+
+    private double serviceSeconds() {
+      return Double.isNaN(serviceSeconds) ? 0 : serviceSeconds;
+    }
+  }
+}
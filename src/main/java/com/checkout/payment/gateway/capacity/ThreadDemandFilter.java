@@ -0,0 +1,39 @@
+package com.checkout.payment.gateway.capacity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Measures how long each request holds its Tomcat thread and reports it to
+ * {@link AdaptiveThreadPool}. Runs first so the other filters' time is counted too.
+ */
+@Component
+@ConditionalOnProperty(value = "server.adaptive-threads.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ThreadDemandFilter extends OncePerRequestFilter {
+
+  private final AdaptiveThreadPool threadPool;
+
+  public ThreadDemandFilter(AdaptiveThreadPool threadPool) {
+    this.threadPool = threadPool;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    long started = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      threadPool.record(System.nanoTime() - started);
+    }
+  }
+}
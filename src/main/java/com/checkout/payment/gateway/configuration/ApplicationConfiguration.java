@@ -1,6 +1,7 @@
 package com.checkout.payment.gateway.configuration;
 
-import java.time.Duration;
+import com.checkout.payment.gateway.bank.BankClientTuning;
+import com.checkout.payment.gateway.bank.BankRequestFactory;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,10 +11,10 @@ import org.springframework.web.client.RestTemplate;
 public class ApplicationConfiguration {
 
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
+  public RestTemplate restTemplate(RestTemplateBuilder builder, BankClientTuning tuning) {
+    // Timeouts live on the factory so each call can narrow them to its remaining deadline
     return builder
-        .setConnectTimeout(Duration.ofMillis(10000))
-        .setReadTimeout(Duration.ofMillis(10000))
+        .requestFactory(() -> new BankRequestFactory(tuning::current))
         .build();
   }
 }
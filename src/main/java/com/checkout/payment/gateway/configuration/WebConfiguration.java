@@ -0,0 +1,93 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.admin.AdminAccessInterceptor;
+import com.checkout.payment.gateway.controller.PaymentRecordJsonWriter;
+import com.checkout.payment.gateway.deadline.DeadlineInterceptor;
+import com.checkout.payment.gateway.drain.DrainCoordinator;
+import com.checkout.payment.gateway.drain.DrainInterceptor;
+import com.checkout.payment.gateway.parser.PostPaymentRequestReader;
+import com.checkout.payment.gateway.ratelimit.MerchantRateLimiter;
+import com.checkout.payment.gateway.ratelimit.RateLimitInterceptor;
+import com.fasterxml.jackson.core.JsonFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+  private final MerchantRateLimiter rateLimiter;
+  private final DrainCoordinator drainCoordinator;
+  private final boolean rateLimitEnabled;
+  private final Duration defaultTimeout;
+  private final Duration maxTimeout;
+  private final boolean streamingParserEnabled;
+  private final boolean adminEnabled;
+  private final String adminToken;
+  private final boolean paymentEventsEnabled;
+
+  public WebConfiguration(MerchantRateLimiter rateLimiter, DrainCoordinator drainCoordinator,
+      @Value("${rate-limit.enabled:false}") boolean rateLimitEnabled,
+      @Value("${request.default-timeout-ms:15000}") long defaultTimeoutMs,
+      @Value("${request.max-timeout-ms:30000}") long maxTimeoutMs,
+      @Value("${payments.streaming-parser.enabled:false}") boolean streamingParserEnabled,
+      @Value("${admin.enabled:false}") boolean adminEnabled,
+      @Value("${admin.token:}") String adminToken,
+      @Value("${payment-events.enabled:false}") boolean paymentEventsEnabled) {
+    this.rateLimiter = rateLimiter;
+    this.drainCoordinator = drainCoordinator;
+    this.rateLimitEnabled = rateLimitEnabled;
+    this.defaultTimeout = Duration.ofMillis(defaultTimeoutMs);
+    this.maxTimeout = Duration.ofMillis(maxTimeoutMs);
+    this.streamingParserEnabled = streamingParserEnabled;
+    this.adminEnabled = adminEnabled;
+    this.adminToken = adminToken;
+    this.paymentEventsEnabled = paymentEventsEnabled;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    // Operator endpoints only answer callers with the admin token: the admin controllers, and the
+    // payment event stream, which carries every payment outcome
+    List<String> operatorPaths = new ArrayList<>();
+    if (adminEnabled) {
+      operatorPaths.add("/admin/**");
+    }
+    if (paymentEventsEnabled) {
+      operatorPaths.add("/payment-events/**");
+    }
+    if (!operatorPaths.isEmpty()) {
+      registry.addInterceptor(new AdminAccessInterceptor(adminToken))
+          .addPathPatterns(operatorPaths);
+    }
+    // Refuse work during shutdown before anything else is spent on it
+    registry.addInterceptor(new DrainInterceptor(drainCoordinator)).addPathPatterns("/payments/**");
+    // Then start the budget before any other per-request work
+    registry.addInterceptor(new DeadlineInterceptor(defaultTimeout, maxTimeout))
+        .addPathPatterns("/payments/**");
+    if (rateLimitEnabled) {
+      registry.addInterceptor(new RateLimitInterceptor(rateLimiter)).addPathPatterns("/payments/**");
+    }
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // Compact binary alternative to JSON, chosen by Content-Type/Accept: application/cbor.
+    // Added after the JSON converter so JSON stays the default when the client has no preference.
+    if (converters.stream().noneMatch(MappingJackson2CborHttpMessageConverter.class::isInstance)) {
+      converters.add(new MappingJackson2CborHttpMessageConverter());
+    }
+    // Ahead of Jackson so stored payments are written from their pre-rendered JSON
+    converters.add(0, new PaymentRecordJsonWriter());
+    if (streamingParserEnabled) {
+      // Ahead of Jackson so it claims JSON payment requests; everything else falls through
+      converters.add(0, new PostPaymentRequestReader(new JsonFactory()));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.bank.BankClientSettings;
+import com.checkout.payment.gateway.bank.BankClientTuning;
+import com.checkout.payment.gateway.model.BankClientSettingsRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reads and changes the acquiring bank client settings without a restart. Only present with
+ * {@code admin.enabled=true}, behind the admin token.
+ */
+@RestController
+@ConditionalOnProperty(value = "admin.enabled", havingValue = "true")
+public class BankClientAdminController {
+
+  private final BankClientTuning bankClientTuning;
+
+  public BankClientAdminController(BankClientTuning bankClientTuning) {
+    this.bankClientTuning = bankClientTuning;
+  }
+
+  @GetMapping("/admin/bank-client")
+  public BankClientSettings settings() {
+    return bankClientTuning.current();
+  }
+
+  @PatchMapping("/admin/bank-client")
+  public BankClientSettings update(@RequestBody BankClientSettingsRequest request) {
+    return bankClientTuning.update(request);
+  }
+}
@@ -0,0 +1,60 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.events.PaymentEventCodec;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.exception.InvalidEventRangeException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams raw {@link PaymentEventCodec} records to downstream consumers. A consumer resumes by
+ * passing the {@value #NEXT_SEQUENCE_HEADER} value of its previous response as {@code from}.
+ */
+@RestController
+public class PaymentEventController {
+
+  static final String NEXT_SEQUENCE_HEADER = "X-Next-Sequence";
+  static final long MAX_LIMIT = 100_000;
+
+  private final PaymentEventLog paymentEventLog;
+
+  public PaymentEventController(PaymentEventLog paymentEventLog) {
+    this.paymentEventLog = paymentEventLog;
+  }
+
+  @GetMapping("/payment-events")
+  public ResponseEntity<StreamingResponseBody> streamEvents(
+      @RequestParam(defaultValue = "0") long from,
+      @RequestParam(defaultValue = "100000") long limit) {
+    if (!paymentEventLog.isEnabled()) {
+      return ResponseEntity.notFound().build();
+    }
+    List<String> errors = new ArrayList<>();
+    if (from < 0) {
+      errors.add("from: must be at least 0");
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      errors.add("limit: must be between 1 and " + MAX_LIMIT);
+    }
+    if (!errors.isEmpty()) {
+      throw new InvalidEventRangeException(errors);
+    }
+    // Content-Length must match what transferTo writes, so bound the range by what is committed
+    // now; later commits only move committedSequence forward.
+    long committed = paymentEventLog.committedSequence();
+    long start = Math.min(from, committed);
+    long to = start + Math.min(limit, committed - start);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+        .contentLength((to - start) * PaymentEventCodec.RECORD_SIZE)
+        .header(NEXT_SEQUENCE_HEADER, String.valueOf(to))
+        .body(out -> paymentEventLog.transferTo(start, to, Channels.newChannel(out)));
+  }
+}
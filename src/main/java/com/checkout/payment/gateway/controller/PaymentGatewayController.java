@@ -1,16 +1,25 @@
 package com.checkout.payment.gateway.controller;
 
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.model.PaymentRecord;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.ValidatedPostPaymentRequest;
+import com.checkout.payment.gateway.ratelimit.RateLimitInterceptor;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.tracing.Tracing;
 import java.util.UUID;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController("api")
@@ -22,14 +31,37 @@ public class PaymentGatewayController {
     this.paymentGatewayService = paymentGatewayService;
   }
 
+  // The streaming reader validates while parsing, so don't walk the same bean again
+  @InitBinder
+  public void skipRevalidation(WebDataBinder binder) {
+    if (binder.getTarget() instanceof ValidatedPostPaymentRequest) {
+      binder.replaceValidators();
+    }
+  }
+
+  // JSON responses are the record's pre-rendered bytes, see PaymentRecordJsonWriter
   @GetMapping("/payments/{id}")
-  public ResponseEntity<PostPaymentResponse> getPostPaymentEventById(@PathVariable UUID id) {
-    return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+  public ResponseEntity<PaymentRecord> getPostPaymentEventById(@PathVariable UUID id) {
+    long started = Tracing.start();
+    try {
+      return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+    } finally {
+      Tracing.stage("controller.getPayment", started);
+    }
   }
 
   @PostMapping("/payments")
   public ResponseEntity<PostPaymentResponse> createPayment(
-      @Valid @RequestBody PostPaymentRequest request) {
-    return new ResponseEntity<PostPaymentResponse>(paymentGatewayService.processPayment(request), HttpStatus.OK);
+      @Valid @RequestBody PostPaymentRequest request,
+      @RequestHeader(value = RateLimitInterceptor.API_KEY_HEADER, required = false)
+      String merchantId,
+      @RequestAttribute(Deadline.REQUEST_ATTRIBUTE) Deadline deadline) {
+    long started = Tracing.start();
+    try {
+      return new ResponseEntity<PostPaymentResponse>(
+          paymentGatewayService.processPayment(request, merchantId, deadline), HttpStatus.OK);
+    } finally {
+      Tracing.stage("controller.createPayment", started);
+    }
   }
 }
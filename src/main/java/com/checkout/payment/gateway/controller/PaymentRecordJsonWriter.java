@@ -0,0 +1,48 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.PaymentRecord;
+import java.io.IOException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes a {@link PaymentRecord} as JSON by copying its pre-rendered bytes. Registered ahead of
+ * Jackson, it only claims JSON; clients asking for another format, such as CBOR, fall through to
+ * the next converter.
+ */
+public class PaymentRecordJsonWriter extends AbstractHttpMessageConverter<PaymentRecord> {
+
+  public PaymentRecordJsonWriter() {
+    super(MediaType.APPLICATION_JSON);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PaymentRecord.class == clazz;
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected PaymentRecord readInternal(Class<? extends PaymentRecord> clazz,
+      HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Payment records are write-only", inputMessage);
+  }
+
+  @Override
+  protected Long getContentLength(PaymentRecord record, MediaType contentType) {
+    return (long) record.jsonLength();
+  }
+
+  @Override
+  protected void writeInternal(PaymentRecord record, HttpOutputMessage outputMessage)
+      throws IOException {
+    record.writeJsonTo(outputMessage.getBody());
+  }
+}
@@ -0,0 +1,28 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.SlowTracesResponse;
+import com.checkout.payment.gateway.tracing.SlowTraceRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Shows the stage timelines of recent requests that were slower than the tail threshold. Only
+ * present with {@code admin.enabled=true}, behind the admin token.
+ */
+@RestController
+@ConditionalOnProperty(value = "admin.enabled", havingValue = "true")
+public class TraceAdminController {
+
+  private final SlowTraceRecorder slowTraceRecorder;
+
+  public TraceAdminController(SlowTraceRecorder slowTraceRecorder) {
+    this.slowTraceRecorder = slowTraceRecorder;
+  }
+
+  @GetMapping("/admin/traces")
+  public SlowTracesResponse slowTraces() {
+    return new SlowTracesResponse(slowTraceRecorder.thresholdNanos(),
+        slowTraceRecorder.slowTraces());
+  }
+}
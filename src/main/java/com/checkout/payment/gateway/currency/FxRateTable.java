@@ -0,0 +1,90 @@
+package com.checkout.payment.gateway.currency;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of exchange rates. Conversion factors between every pair of quoted
+ * currencies are worked out in minor units when the table is built, so converting an amount is
+ * one array lookup and one multiplication.
+ */
+public final class FxRateTable {
+
+  private static final int CURRENCIES = IsoCurrency.values().length;
+
+  private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(Long.MAX_VALUE);
+
+  private final BigDecimal[] factors = new BigDecimal[CURRENCIES * CURRENCIES];
+  private final long[] maxAmounts = new long[CURRENCIES * CURRENCIES];
+
+  /**
+   * @param rates units of each currency per one unit of a common base currency
+   */
+  public FxRateTable(Map<IsoCurrency, BigDecimal> rates) {
+    for (Map.Entry<IsoCurrency, BigDecimal> from : rates.entrySet()) {
+      for (Map.Entry<IsoCurrency, BigDecimal> to : rates.entrySet()) {
+        BigDecimal factor = to.getValue()
+            .divide(from.getValue(), MathContext.DECIMAL64)
+            .scaleByPowerOfTen(to.getKey().getExponent() - from.getKey().getExponent());
+        int pair = from.getKey().ordinal() * CURRENCIES + to.getKey().ordinal();
+        factors[pair] = factor;
+        // Largest amount whose converted value still fits in a long
+        maxAmounts[pair] = factor.compareTo(BigDecimal.ONE) <= 0
+            ? Long.MAX_VALUE
+            : MAX_AMOUNT.divide(factor, 0, RoundingMode.FLOOR).longValue();
+      }
+    }
+  }
+
+  public static FxRateTable empty() {
+    return new FxRateTable(Map.of());
+  }
+
+  public boolean supports(IsoCurrency from, IsoCurrency to) {
+    return from == to || factors[from.ordinal() * CURRENCIES + to.ordinal()] != null;
+  }
+
+  /**
+   * The largest amount, in {@code from}'s minor unit, that {@link #convert} can convert to
+   * {@code to} without overflowing.
+   *
+   * @throws IllegalArgumentException if the table has no rate for either currency
+   */
+  public long maxConvertibleAmount(IsoCurrency from, IsoCurrency to) {
+    if (from == to) {
+      return Long.MAX_VALUE;
+    }
+    int pair = from.ordinal() * CURRENCIES + to.ordinal();
+    if (factors[pair] == null) {
+      throw new IllegalArgumentException("No exchange rate from " + from + " to " + to);
+    }
+    return maxAmounts[pair];
+  }
+
+  /**
+   * Converts an amount in {@code from}'s minor unit to {@code to}'s minor unit, rounding half to
+   * even.
+   *
+   * @throws IllegalArgumentException if the table has no rate for either currency, or the
+   *     amount is above {@link #maxConvertibleAmount}
+   */
+  public long convert(long amount, IsoCurrency from, IsoCurrency to) {
+    if (from == to) {
+      return amount;
+    }
+    int pair = from.ordinal() * CURRENCIES + to.ordinal();
+    BigDecimal factor = factors[pair];
+    if (factor == null) {
+      throw new IllegalArgumentException("No exchange rate from " + from + " to " + to);
+    }
+    if (amount > maxAmounts[pair]) {
+      throw new IllegalArgumentException(
+          "Amount " + amount + " " + from + " is too large to convert to " + to);
+    }
+    return BigDecimal.valueOf(amount).multiply(factor)
+        .setScale(0, RoundingMode.HALF_EVEN)
+        .longValueExact();
+  }
+}
@@ -0,0 +1,135 @@
+package com.checkout.payment.gateway.currency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional conversion of payments into the acquirer's settlement currency, using rates from a
+ * local properties file ({@code CODE=units per base unit}).
+ *
+ * <p>The file is re-read in the background when it changes. Each load builds a new
+ * {@link FxRateTable} and publishes it with a single volatile write, so payments always see one
+ * complete table and never wait for a refresh. A file that fails to load leaves the previous
+ * table in place.
+ */
+@Component
+public class FxRates {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FxRates.class);
+
+  private final boolean enabled;
+  private final Path ratesFile;
+  private final IsoCurrency settlementCurrency;
+  private final long refreshIntervalMs;
+  private volatile FxRateTable table = FxRateTable.empty();
+  private FileTime loadedVersion;
+  private ScheduledExecutorService refresher;
+
+  public FxRates(
+      @Value("${fx.enabled:false}") boolean enabled,
+      @Value("${fx.rates-file:config/fx-rates.properties}") String ratesFile,
+      @Value("${fx.settlement-currency:GBP}") String settlementCurrency,
+      @Value("${fx.refresh-interval-ms:60000}") long refreshIntervalMs) {
+    this.enabled = enabled;
+    this.ratesFile = Paths.get(ratesFile);
+    this.settlementCurrency = IsoCurrency.fromCode(settlementCurrency);
+    this.refreshIntervalMs = refreshIntervalMs;
+    if (enabled && this.settlementCurrency == null) {
+      throw new IllegalArgumentException("Unknown settlement currency " + settlementCurrency);
+    }
+  }
+
+  public static FxRates disabled() {
+    return new FxRates(false, "", "GBP", 0);
+  }
+
+  @PostConstruct
+  public void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    // Refuse to start without rates rather than reject every foreign-currency payment
+    table = load();
+    refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "fx-rate-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalMs, refreshIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (refresher != null) {
+      refresher.shutdownNow();
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public IsoCurrency getSettlementCurrency() {
+    return settlementCurrency;
+  }
+
+  /** The rates in force right now; callers should use one snapshot for a whole conversion. */
+  public FxRateTable current() {
+    return table;
+  }
+
+  void refresh() {
+    try {
+      if (!Files.getLastModifiedTime(ratesFile).equals(loadedVersion)) {
+        table = load();
+        LOG.info("Reloaded FX rates from {}", ratesFile);
+      }
+    } catch (IOException | RuntimeException ex) {
+      LOG.warn("Failed to reload FX rates from {}, keeping previous rates", ratesFile, ex);
+    }
+  }
+
+  private FxRateTable load() throws IOException {
+    FileTime version = Files.getLastModifiedTime(ratesFile);
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(ratesFile, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    Map<IsoCurrency, BigDecimal> rates = new EnumMap<>(IsoCurrency.class);
+    for (String code : properties.stringPropertyNames()) {
+      IsoCurrency currency = IsoCurrency.fromCode(code);
+      if (currency == null) {
+        throw new IOException("Unknown currency " + code + " in " + ratesFile);
+      }
+      BigDecimal rate = new BigDecimal(properties.getProperty(code).trim());
+      if (rate.signum() <= 0) {
+        throw new IOException("Rate for " + code + " must be positive in " + ratesFile);
+      }
+      rates.put(currency, rate);
+    }
+    if (!rates.containsKey(settlementCurrency)) {
+      throw new IOException("No rate for settlement currency " + settlementCurrency);
+    }
+    loadedVersion = version;
+    return new FxRateTable(rates);
+  }
+}
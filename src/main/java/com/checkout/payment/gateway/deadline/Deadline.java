@@ -0,0 +1,43 @@
+package com.checkout.payment.gateway.deadline;
+
+import java.time.Duration;
+
+/**
+ * Point in time after which nobody is waiting for the result of a request any more. Based on
+ * {@link System#nanoTime()}, so it is only meaningful inside this JVM.
+ */
+public final class Deadline {
+
+  public static final String REQUEST_ATTRIBUTE = Deadline.class.getName();
+
+  private final long deadlineNanos;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  public static Deadline after(Duration timeout) {
+    return new Deadline(System.nanoTime() + timeout.toNanos());
+  }
+
+  public long remainingNanos() {
+    return deadlineNanos - System.nanoTime();
+  }
+
+  public Duration remaining() {
+    return Duration.ofNanos(Math.max(0, remainingNanos()));
+  }
+
+  public boolean isExpired() {
+    return remainingNanos() <= 0;
+  }
+
+  public boolean isBefore(Deadline other) {
+    return deadlineNanos - other.deadlineNanos < 0;
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline{remaining=" + remaining() + '}';
+  }
+}
@@ -0,0 +1,48 @@
+package com.checkout.payment.gateway.deadline;
+
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Starts the request's time budget as soon as it is dispatched. Callers may send their own
+ * timeout in {@value #TIMEOUT_HEADER} (milliseconds); it is capped at the server maximum, and
+ * the server default applies when the header is missing or unreadable.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+  public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+  private final Duration defaultTimeout;
+  private final Duration maxTimeout;
+
+  public DeadlineInterceptor(Duration defaultTimeout, Duration maxTimeout) {
+    this.defaultTimeout = defaultTimeout;
+    this.maxTimeout = maxTimeout;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    Duration timeout = requestedTimeout(request.getHeader(TIMEOUT_HEADER));
+    if (timeout.isZero() || timeout.isNegative()) {
+      throw new DeadlineExceededException("Request arrived with no time budget left");
+    }
+    request.setAttribute(Deadline.REQUEST_ATTRIBUTE, Deadline.after(timeout));
+    return true;
+  }
+
+  private Duration requestedTimeout(String header) {
+    if (header == null || header.isBlank()) {
+      return defaultTimeout;
+    }
+    try {
+      Duration requested = Duration.ofMillis(Long.parseLong(header.trim()));
+      return requested.compareTo(maxTimeout) > 0 ? maxTimeout : requested;
+    } catch (NumberFormatException ex) {
+      return defaultTimeout;
+    }
+  }
+}
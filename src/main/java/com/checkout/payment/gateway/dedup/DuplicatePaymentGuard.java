@@ -0,0 +1,273 @@
+package com.checkout.payment.gateway.dedup;
+
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.exception.DuplicatePaymentException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Suppresses near-simultaneous duplicate submissions of the same payment.
+ *
+ * <p>A payment is identified by a salted HMAC of its card number and expiry, amount, currency and
+ * merchant; the card number itself is never stored. Keys live in a fixed number of stripes, each
+ * a small preallocated open-addressed table with its own lock, so memory does not grow with
+ * traffic and unrelated payments rarely contend. An entry stays live while its authorization is
+ * in flight and for {@code window} after it completes; expired slots are reused in place. A
+ * duplicate either joins the original authorization and gets its result ({@link Mode#JOIN}) or
+ * is refused ({@link Mode#REJECT}). Failed authorizations are forgotten at once so the merchant
+ * can retry. If every slot a key could use is live, the payment goes through unguarded.
+ */
+@Component
+public class DuplicatePaymentGuard {
+
+  public enum Mode { JOIN, REJECT }
+
+  private static final int PROBE_LIMIT = 8;
+  private static final String HMAC = "HmacSHA256";
+
+  private final boolean enabled;
+  private final Mode mode;
+  private final long windowNanos;
+  private final Stripe[] stripes;
+  private final int slotMask;
+  private final SecretKeySpec salt;
+  private final ThreadLocal<Mac> macs;
+  private final LongSupplier nanoClock;
+  private final Counter joined;
+  private final Counter rejected;
+  private final Counter overflowed;
+
+  @Autowired
+  public DuplicatePaymentGuard(
+      @Value("${payments.dedup.enabled:false}") boolean enabled,
+      @Value("${payments.dedup.mode:JOIN}") Mode mode,
+      @Value("${payments.dedup.window-ms:2000}") long windowMs,
+      @Value("${payments.dedup.stripes:64}") int stripes,
+      @Value("${payments.dedup.slots-per-stripe:256}") int slotsPerStripe,
+      @Value("${payments.dedup.salt:}") String salt,
+      MeterRegistry meterRegistry) {
+    this(enabled, mode, Duration.ofMillis(windowMs), stripes, slotsPerStripe, salt,
+        meterRegistry, System::nanoTime);
+  }
+
+  DuplicatePaymentGuard(boolean enabled, Mode mode, Duration window, int stripes,
+      int slotsPerStripe, String salt, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+    this.enabled = enabled;
+    this.mode = mode;
+    this.windowNanos = window.toNanos();
+    int slots = Integer.highestOneBit(Math.max(PROBE_LIMIT, slotsPerStripe) * 2 - 1);
+    this.stripes = new Stripe[Math.max(1, stripes)];
+    for (int i = 0; i < this.stripes.length; i++) {
+      this.stripes[i] = enabled ? new Stripe(slots) : null;
+    }
+    this.slotMask = slots - 1;
+    this.salt = new SecretKeySpec(saltBytes(salt), HMAC);
+    this.macs = ThreadLocal.withInitial(this::newMac);
+    this.nanoClock = nanoClock;
+    this.joined = outcomeCounter(meterRegistry, "joined");
+    this.rejected = outcomeCounter(meterRegistry, "rejected");
+    this.overflowed = outcomeCounter(meterRegistry, "overflow");
+  }
+
+  public static DuplicatePaymentGuard disabled(MeterRegistry meterRegistry) {
+    return new DuplicatePaymentGuard(false, Mode.JOIN, Duration.ZERO, 1, PROBE_LIMIT, "",
+        meterRegistry, System::nanoTime);
+  }
+
+  /**
+   * Registers the payment as in flight, unless an identical one already is.
+   *
+   * @return a claim the caller must settle with {@link Claim#complete} or {@link Claim#fail} if it
+   *     {@link Claim#isOriginal() is the original}; otherwise a claim on the original's result
+   * @throws DuplicatePaymentException if a live duplicate exists and the mode is {@code REJECT}
+   */
+  public Claim claim(PostPaymentRequest request, String merchantId) {
+    if (!enabled) {
+      return Claim.UNGUARDED;
+    }
+    long key = fingerprint(request, merchantId);
+    Stripe stripe = stripeFor(key);
+    int home = (int) key & slotMask;
+    long now = nanoClock.getAsLong();
+    synchronized (stripe) {
+      int free = -1;
+      for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+        int slot = (home + probe) & slotMask;
+        boolean live = stripe.keys[slot] != 0
+            && (!stripe.results[slot].isDone() || now - stripe.expiresAt[slot] < 0);
+        if (live && stripe.keys[slot] == key) {
+          if (mode == Mode.REJECT) {
+            rejected.increment();
+            throw new DuplicatePaymentException("Duplicate payment is already being processed");
+          }
+          joined.increment();
+          return new Claim(null, -1, 0, stripe.results[slot], false);
+        }
+        if (!live && free < 0) {
+          free = slot;
+        }
+      }
+      if (free < 0) {
+        overflowed.increment();
+        return Claim.UNGUARDED;
+      }
+      CompletableFuture<PostPaymentResponse> result = new CompletableFuture<>();
+      stripe.keys[free] = key;
+      stripe.results[free] = result;
+      return new Claim(this, free, key, result, true);
+    }
+  }
+
+  private void settle(Stripe stripe, int slot, long key, boolean keep) {
+    synchronized (stripe) {
+      if (stripe.keys[slot] != key) {
+        return;
+      }
+      if (keep) {
+        stripe.expiresAt[slot] = nanoClock.getAsLong() + windowNanos;
+      } else {
+        stripe.keys[slot] = 0;
+        stripe.results[slot] = null;
+      }
+    }
+  }
+
+  private Stripe stripeFor(long key) {
+    return stripes[(int) ((key >>> 32) % stripes.length)];
+  }
+
+  private long fingerprint(PostPaymentRequest request, String merchantId) {
+    Mac mac = macs.get();
+    mac.update(request.getCardNumber().getBytes(StandardCharsets.US_ASCII));
+    mac.update((byte) 0);
+    mac.update(ByteBuffer.allocate(16)
+        .putInt(request.expiryMonthValue())
+        .putInt(request.expiryYearValue())
+        .putLong(request.amountValue())
+        .array());
+    mac.update(request.getCurrency().getBytes(StandardCharsets.US_ASCII));
+    mac.update((byte) 0);
+    if (merchantId != null) {
+      mac.update(merchantId.getBytes(StandardCharsets.UTF_8));
+    }
+    long key = ByteBuffer.wrap(mac.doFinal()).getLong();
+    // Zero marks an empty slot
+    return key == 0 ? 1 : key;
+  }
+
+  private Mac newMac() {
+    try {
+      Mac mac = Mac.getInstance(HMAC);
+      mac.init(salt);
+      return mac;
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+    }
+  }
+
+  private static byte[] saltBytes(String salt) {
+    if (salt != null && !salt.isBlank()) {
+      return salt.getBytes(StandardCharsets.UTF_8);
+    }
+    // Fingerprints only need to match within one process, so a per-process salt is enough
+    byte[] random = new byte[32];
+    new SecureRandom().nextBytes(random);
+    return random;
+  }
+
+  private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("payments.dedup")
+        .description("Duplicate payment submissions, by how they were handled")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private static final class Stripe {
+    private final long[] keys;
+    private final long[] expiresAt;
+    private final CompletableFuture<PostPaymentResponse>[] results;
+
+    @SuppressWarnings("unchecked")
+    private Stripe(int slots) {
+      this.keys = new long[slots];
+      this.expiresAt = new long[slots];
+      this.results = new CompletableFuture[slots];
+    }
+  }
+
+  /** A payment's place in the guard: either the original submission or a duplicate of one. */
+  public static final class Claim {
+
+    private static final Claim UNGUARDED = new Claim(null, -1, 0, null, true);
+
+    private final DuplicatePaymentGuard guard;
+    private final int slot;
+    private final long key;
+    private final CompletableFuture<PostPaymentResponse> result;
+    private final boolean original;
+
+    private Claim(DuplicatePaymentGuard guard, int slot, long key,
+        CompletableFuture<PostPaymentResponse> result, boolean original) {
+      this.guard = guard;
+      this.slot = slot;
+      this.key = key;
+      this.result = result;
+      this.original = original;
+    }
+
+    public boolean isOriginal() {
+      return original;
+    }
+
+    /** Publishes the original's result to duplicates and keeps it for the rest of the window. */
+    public void complete(PostPaymentResponse response) {
+      if (guard != null) {
+        guard.settle(guard.stripeFor(key), slot, key, true);
+        result.complete(response);
+      }
+    }
+
+    /** Fails waiting duplicates and forgets the payment, so a retry is authorized afresh. */
+    public void fail(Throwable ex) {
+      if (guard != null) {
+        guard.settle(guard.stripeFor(key), slot, key, false);
+        result.completeExceptionally(ex);
+      }
+    }
+
+    /** Waits, within the deadline, for the original submission's result. */
+    public PostPaymentResponse awaitOriginal(Deadline deadline) {
+      try {
+        return result.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException ex) {
+        throw new DeadlineExceededException("Deadline exceeded waiting for original payment");
+      } catch (ExecutionException ex) {
+        if (ex.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        throw new IllegalStateException("Original payment failed", ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new DeadlineExceededException("Interrupted waiting for original payment", ex);
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.checkout.payment.gateway.drain;
+
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.exception.ServiceDrainingException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets in-flight payments finish before the application shuts down.
+ *
+ * <p>Stopped ahead of the web server: it first marks the application as refusing traffic, so the
+ * readiness probe fails and the load balancer stops routing here. Payments arriving after that
+ * get {@code 503 DRAINING}. It then waits, up to {@code drain.timeout-ms}, for the payments
+ * already admitted to finish and for the event log to write what they queued, and logs how many
+ * were drained and how many had to be abandoned.
+ */
+@Component
+public class DrainCoordinator implements SmartLifecycle {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DrainCoordinator.class);
+
+  private final Duration timeout;
+  private final PaymentEventLog paymentEventLog;
+  private final ApplicationEventPublisher eventPublisher;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Object drained = new Object();
+  private volatile boolean draining;
+  private volatile boolean running;
+  private volatile DrainReport lastReport;
+
+  @Autowired
+  public DrainCoordinator(@Value("${drain.timeout-ms:20000}") long timeoutMs,
+      PaymentEventLog paymentEventLog, ApplicationEventPublisher eventPublisher) {
+    this(Duration.ofMillis(timeoutMs), paymentEventLog, eventPublisher);
+  }
+
+  DrainCoordinator(Duration timeout, PaymentEventLog paymentEventLog,
+      ApplicationEventPublisher eventPublisher) {
+    this.timeout = timeout;
+    this.paymentEventLog = paymentEventLog;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Admits one unit of work, which must be ended with {@link #exit()}.
+   *
+   * @throws ServiceDrainingException if a drain has started
+   */
+  public void enter() {
+    // Count first, then check: a drain either sees this request or this request sees the drain
+    inFlight.incrementAndGet();
+    if (draining) {
+      exit();
+      throw new ServiceDrainingException("Service is shutting down");
+    }
+  }
+
+  public void exit() {
+    if (inFlight.decrementAndGet() == 0 && draining) {
+      synchronized (drained) {
+        drained.notifyAll();
+      }
+    }
+  }
+
+  public boolean isDraining() {
+    return draining;
+  }
+
+  /** Outcome of the last drain, or null if there has not been one. */
+  public DrainReport lastReport() {
+    return lastReport;
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+    draining = true;
+    int admitted = inFlight.get();
+    LOG.info("Draining {} in-flight payments for up to {}", admitted, timeout);
+
+    synchronized (drained) {
+      long remaining;
+      while (inFlight.get() > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+        try {
+          TimeUnit.NANOSECONDS.timedWait(drained, remaining);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    int abandoned = Math.max(0, inFlight.get());
+    boolean eventsFlushed = paymentEventLog.awaitFlushed(
+        Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+    lastReport = new DrainReport(Math.max(0, admitted - abandoned), abandoned, eventsFlushed);
+    if (abandoned > 0 || !eventsFlushed) {
+      LOG.warn("Drain timed out: {}", lastReport);
+    } else {
+      LOG.info("Drain complete: {}", lastReport);
+    }
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Stop before the web server's graceful shutdown, while requests can still complete
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE;
+  }
+}
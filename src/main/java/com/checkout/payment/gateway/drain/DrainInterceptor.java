@@ -0,0 +1,28 @@
+package com.checkout.payment.gateway.drain;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/** Tracks payment requests with the {@link DrainCoordinator}; refuses new ones once draining. */
+public class DrainInterceptor implements HandlerInterceptor {
+
+  private final DrainCoordinator drainCoordinator;
+
+  public DrainInterceptor(DrainCoordinator drainCoordinator) {
+    this.drainCoordinator = drainCoordinator;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    drainCoordinator.enter();
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    drainCoordinator.exit();
+  }
+}
@@ -0,0 +1,36 @@
+package com.checkout.payment.gateway.drain;
+
+/** How a drain ended: payments that finished in time, payments cut off, and event log state. */
+public class DrainReport {
+
+  private final int drained;
+  private final int abandoned;
+  private final boolean eventsFlushed;
+
+  public DrainReport(int drained, int abandoned, boolean eventsFlushed) {
+    this.drained = drained;
+    this.abandoned = abandoned;
+    this.eventsFlushed = eventsFlushed;
+  }
+
+  public int getDrained() {
+    return drained;
+  }
+
+  public int getAbandoned() {
+    return abandoned;
+  }
+
+  public boolean isEventsFlushed() {
+    return eventsFlushed;
+  }
+
+  @Override
+  public String toString() {
+    return "DrainReport{"
+        + "drained=" + drained
+        + ", abandoned=" + abandoned
+        + ", eventsFlushed=" + eventsFlushed
+        + '}';
+  }
+}
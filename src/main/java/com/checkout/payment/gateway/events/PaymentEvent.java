@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.events;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.UUID;
+
+/**
+ * A payment reaching a status. The sequence number is assigned by {@link PaymentEventLog} when
+ * the event is written, and is {@link #UNASSIGNED} before that.
+ */
+public class PaymentEvent {
+
+  public static final long UNASSIGNED = -1;
+
+  private final long sequence;
+  private final long timestampMillis;
+  private final UUID paymentId;
+  private final PaymentStatus status;
+  private final String currency;
+  private final long amount;
+
+  public PaymentEvent(long sequence, long timestampMillis, UUID paymentId, PaymentStatus status,
+      String currency, long amount) {
+    this.sequence = sequence;
+    this.timestampMillis = timestampMillis;
+    this.paymentId = paymentId;
+    this.status = status;
+    this.currency = currency;
+    this.amount = amount;
+  }
+
+  public static PaymentEvent of(PostPaymentResponse payment) {
+    return new PaymentEvent(UNASSIGNED, System.currentTimeMillis(), payment.getId(),
+        payment.getStatus(), payment.getCurrency(), payment.getAmount());
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public long getTimestampMillis() {
+    return timestampMillis;
+  }
+
+  public UUID getPaymentId() {
+    return paymentId;
+  }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
+
+  public String getCurrency() {
+    return currency;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentEvent{" +
+        "sequence=" + sequence +
+        ", timestampMillis=" + timestampMillis +
+        ", paymentId=" + paymentId +
+        ", status=" + status +
+        ", currency='" + currency + '\'' +
+        ", amount=" + amount +
+        '}';
+  }
+}
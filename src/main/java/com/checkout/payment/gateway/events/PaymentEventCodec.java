@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.events;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-size, big-endian binary layout of one {@link PaymentEvent}. A fixed size lets a reader
+ * find any sequence number in a segment by arithmetic alone.
+ *
+ * <pre>
+ *  0  long   sequence
+ *  8  long   timestamp (epoch millis)
+ * 16  long   payment id, most significant bits
+ * 24  long   payment id, least significant bits
+ * 32  long   amount (minor units)
+ * 40  byte   status ordinal
+ * 41  byte[3] currency, ASCII
+ * 44  int    CRC32C of bytes 0..43
+ * </pre>
+ */
+public final class PaymentEventCodec {
+
+  public static final int RECORD_SIZE = 48;
+  private static final int CHECKSUMMED_BYTES = 44;
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+  private PaymentEventCodec() {
+  }
+
+  public static void encode(long sequence, PaymentEvent event, ByteBuffer target) {
+    int start = target.position();
+    target.putLong(sequence)
+        .putLong(event.getTimestampMillis())
+        .putLong(event.getPaymentId().getMostSignificantBits())
+        .putLong(event.getPaymentId().getLeastSignificantBits())
+        .putLong(event.getAmount())
+        .put((byte) event.getStatus().ordinal())
+        .put(event.getCurrency().getBytes(StandardCharsets.US_ASCII), 0, 3);
+    target.putInt(checksum(target, start));
+  }
+
+  /**
+   * Reads one record from the buffer's current position.
+   *
+   * @throws IllegalStateException if the record's checksum does not match
+   */
+  public static PaymentEvent decode(ByteBuffer source) {
+    int start = source.position();
+    if (source.getInt(start + CHECKSUMMED_BYTES) != checksum(source, start)) {
+      throw new IllegalStateException("Corrupt payment event record at offset " + start);
+    }
+    long sequence = source.getLong();
+    long timestamp = source.getLong();
+    UUID paymentId = new UUID(source.getLong(), source.getLong());
+    long amount = source.getLong();
+    PaymentStatus status = STATUSES[source.get()];
+    byte[] currency = new byte[3];
+    source.get(currency);
+    source.getInt();
+    return new PaymentEvent(sequence, timestamp, paymentId, status,
+        new String(currency, StandardCharsets.US_ASCII), amount);
+  }
+
+  private static int checksum(ByteBuffer buffer, int start) {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.slice(start, CHECKSUMMED_BYTES));
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,307 @@
+package com.checkout.payment.gateway.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Durable, replayable log of payment outcomes for downstream consumers.
+ *
+ * <p>Events are appended to segment files of fixed-size records (see {@link PaymentEventCodec}),
+ * each named after the sequence number of its first record. {@link #append} only enqueues, so
+ * the authorization path never waits on disk; a single writer thread drains the queue in batches.
+ * Readers copy committed records out of the segment files with {@link FileChannel#transferTo}.
+ *
+ * <p>If a write fails, the segment may hold a partial batch, so the log stops writing: records
+ * up to {@link #committedSequence()} stay readable and later events are dropped until a restart
+ * trims the segment back to whole records.
+ */
+@Component
+public class PaymentEventLog {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentEventLog.class);
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final int MAX_BATCH = 1024;
+
+  private final boolean enabled;
+  private final Path directory;
+  private final long segmentRecords;
+  private final boolean fsync;
+  private final BlockingQueue<PaymentEvent> queue;
+  private final Counter droppedEvents;
+  private final SegmentOpener segmentOpener;
+  private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+  private final AtomicLong enqueued = new AtomicLong();
+  private volatile long processed;
+
+  private final ByteBuffer writeBuffer =
+      ByteBuffer.allocateDirect(MAX_BATCH * PaymentEventCodec.RECORD_SIZE);
+  private FileChannel activeSegment;
+  private long activeSegmentBase;
+  private long nextSequence;
+  private volatile long committedSequence;
+  private volatile boolean running;
+  private volatile boolean failed;
+  private Thread writer;
+
+  /** Opens segment files; replaced in tests to inject I/O failures. */
+  interface SegmentOpener {
+    FileChannel open(Path file, OpenOption... options) throws IOException;
+  }
+
+  public PaymentEventLog(
+      @Value("${payment-events.enabled:false}") boolean enabled,
+      @Value("${payment-events.directory:data/payment-events}") String directory,
+      @Value("${payment-events.segment-records:1000000}") long segmentRecords,
+      @Value("${payment-events.queue-capacity:65536}") int queueCapacity,
+      @Value("${payment-events.fsync:false}") boolean fsync,
+      MeterRegistry meterRegistry) {
+    this(enabled, directory, segmentRecords, queueCapacity, fsync, meterRegistry,
+        FileChannel::open);
+  }
+
+  PaymentEventLog(boolean enabled, String directory, long segmentRecords, int queueCapacity,
+      boolean fsync, MeterRegistry meterRegistry, SegmentOpener segmentOpener) {
+    this.enabled = enabled;
+    this.directory = Paths.get(directory);
+    this.segmentRecords = segmentRecords;
+    this.fsync = fsync;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.droppedEvents = Counter.builder("payment.events.dropped")
+        .description("Payment events dropped because the event log queue was full or writes "
+            + "had failed")
+        .register(meterRegistry);
+    this.segmentOpener = segmentOpener;
+  }
+
+  @PostConstruct
+  public void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    Files.createDirectories(directory);
+    try (Stream<Path> files = Files.list(directory)) {
+      files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .forEach(f -> segments.put(baseSequence(f), f));
+    }
+    if (segments.isEmpty()) {
+      openSegment(0);
+    } else {
+      Map.Entry<Long, Path> last = segments.lastEntry();
+      activeSegmentBase = last.getKey();
+      activeSegment = segmentOpener.open(last.getValue(), StandardOpenOption.WRITE);
+      // A crash can leave a torn record at the tail; drop it so every record stays aligned.
+      long records = activeSegment.size() / PaymentEventCodec.RECORD_SIZE;
+      activeSegment.truncate(records * PaymentEventCodec.RECORD_SIZE);
+      activeSegment.position(records * PaymentEventCodec.RECORD_SIZE);
+      nextSequence = activeSegmentBase + records;
+    }
+    committedSequence = nextSequence;
+    running = true;
+    writer = new Thread(this::writeLoop, "payment-event-writer");
+    writer.setDaemon(true);
+    writer.start();
+    LOG.info("Payment event log open at {}, next sequence {}", directory, nextSequence);
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException, IOException {
+    if (!running) {
+      return;
+    }
+    running = false;
+    writer.join();
+    try {
+      if (!failed) {
+        activeSegment.force(true);
+      }
+    } finally {
+      activeSegment.close();
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Whether a write has failed, after which the log accepts no more events. */
+  public boolean isFailed() {
+    return failed;
+  }
+
+  /**
+   * Queues an event for writing. Never blocks: if the writer has fallen behind far enough to fill
+   * the queue, writing has failed or the log is stopped, the event is dropped and counted in
+   * {@code payment.events.dropped}.
+   */
+  public void append(PaymentEvent event) {
+    if (!enabled) {
+      return;
+    }
+    if (failed || !running || !queue.offer(event)) {
+      droppedEvents.increment();
+      return;
+    }
+    // The writer may have failed or stopped since the check above, after its last look at the
+    // queue; then nothing would ever take the event. If it is still there, it was not written.
+    if ((failed || !running) && queue.remove(event)) {
+      droppedEvents.increment();
+      return;
+    }
+    enqueued.incrementAndGet();
+  }
+
+  /**
+   * Waits until every event queued so far has been handled by the writer.
+   *
+   * @return false if events were still waiting when the timeout ran out, or were dropped because
+   *     writing failed
+   */
+  public boolean awaitFlushed(Duration timeout) {
+    long target = enqueued.get();
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (running && !failed && processed < target) {
+      if (System.nanoTime() - deadline >= 0) {
+        return false;
+      }
+      try {
+        TimeUnit.MILLISECONDS.sleep(1);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return !failed && (processed >= target || !running);
+  }
+
+  /** Sequence number that the next written event will get; every lower one is readable. */
+  public long committedSequence() {
+    return committedSequence;
+  }
+
+  /**
+   * Copies the committed records in {@code [fromSequence, toSequence)} to {@code target}.
+   */
+  public void transferTo(long fromSequence, long toSequence, WritableByteChannel target)
+      throws IOException {
+    long end = Math.min(toSequence, committedSequence);
+    long sequence = Math.max(fromSequence, segments.isEmpty() ? 0 : segments.firstKey());
+    while (sequence < end) {
+      Map.Entry<Long, Path> segment = segments.floorEntry(sequence);
+      long segmentEnd = Math.min(end, segment.getKey() + segmentRecords);
+      try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+        long position = (sequence - segment.getKey()) * PaymentEventCodec.RECORD_SIZE;
+        long limit = (segmentEnd - segment.getKey()) * PaymentEventCodec.RECORD_SIZE;
+        while (position < limit) {
+          position += channel.transferTo(position, limit - position, target);
+        }
+      }
+      sequence = segmentEnd;
+    }
+  }
+
+  private void writeLoop() {
+    List<PaymentEvent> batch = new ArrayList<>(MAX_BATCH);
+    while (running || !queue.isEmpty()) {
+      try {
+        PaymentEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, MAX_BATCH - 1);
+        write(batch);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (IOException ex) {
+        fail(batch.size(), ex);
+        return;
+      } finally {
+        processed += batch.size();
+        batch.clear();
+      }
+    }
+  }
+
+  // The segment may now end in part of a batch and nextSequence is ahead of it, so writing on
+  // would misalign records and sequences. Readers keep the committed prefix; a restart trims the
+  // segment to whole records and continues from there.
+  private void fail(int batchSize, IOException ex) {
+    failed = true;
+    writeBuffer.clear();
+    List<PaymentEvent> queued = new ArrayList<>();
+    queue.drainTo(queued);
+    processed += queued.size();
+    int dropped = batchSize + queued.size();
+    droppedEvents.increment(dropped);
+    LOG.error("Failed to write payment events; event log stopped at sequence {}, {} events "
+        + "dropped, further events are dropped until restart", committedSequence, dropped, ex);
+  }
+
+  private void write(List<PaymentEvent> batch) throws IOException {
+    for (PaymentEvent event : batch) {
+      if (nextSequence - activeSegmentBase == segmentRecords) {
+        flush();
+        activeSegment.close();
+        openSegment(nextSequence);
+      }
+      PaymentEventCodec.encode(nextSequence++, event, writeBuffer);
+    }
+    flush();
+    committedSequence = nextSequence;
+  }
+
+  private void flush() throws IOException {
+    writeBuffer.flip();
+    while (writeBuffer.hasRemaining()) {
+      activeSegment.write(writeBuffer);
+    }
+    writeBuffer.clear();
+    if (fsync) {
+      activeSegment.force(false);
+    }
+  }
+
+  private void openSegment(long baseSequence) throws IOException {
+    Path file = directory.resolve(String.format("%020d%s", baseSequence, SEGMENT_SUFFIX));
+    activeSegment = segmentOpener.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    activeSegmentBase = baseSequence;
+    nextSequence = baseSequence;
+    segments.put(baseSequence, file);
+  }
+
+  private static long baseSequence(Path segment) {
+    String name = segment.getFileName().toString();
+    try {
+      return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException ex) {
+      throw new UncheckedIOException(new IOException("Unexpected file in event log: " + segment));
+    }
+  }
+}
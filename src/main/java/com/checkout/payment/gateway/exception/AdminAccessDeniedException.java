@@ -0,0 +1,8 @@
+package com.checkout.payment.gateway.exception;
+
+public class AdminAccessDeniedException extends RuntimeException {
+
+  public AdminAccessDeniedException(String message) {
+    super(message);
+  }
+}
@@ -4,6 +4,7 @@ import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.checkout.payment.gateway.model.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -44,6 +45,39 @@ public class CommonExceptionHandler {
     );
   }
 
+  @ExceptionHandler(PaymentValidationException.class)
+  public ResponseEntity<ErrorResponse> handleValidation(PaymentValidationException ex) {
+    return new ResponseEntity<>(
+        new ErrorResponse("VALIDATION_ERROR", "Rejected", ex.getErrors()),
+        HttpStatus.BAD_REQUEST
+    );
+  }
+
+  @ExceptionHandler(InvalidSettingsException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidSettings(InvalidSettingsException ex) {
+    return new ResponseEntity<>(
+        new ErrorResponse("INVALID_SETTINGS", "Settings not changed", ex.getErrors()),
+        HttpStatus.BAD_REQUEST
+    );
+  }
+
+  @ExceptionHandler(InvalidEventRangeException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidEventRange(InvalidEventRangeException ex) {
+    return new ResponseEntity<>(
+        new ErrorResponse("INVALID_RANGE", "Invalid event range", ex.getErrors()),
+        HttpStatus.BAD_REQUEST
+    );
+  }
+
+  @ExceptionHandler(AdminAccessDeniedException.class)
+  public ResponseEntity<ErrorResponse> handleAdminAccessDenied(AdminAccessDeniedException ex) {
+    LOG.warn("Refused admin request: {}", ex.getMessage());
+    return new ResponseEntity<>(
+        new ErrorResponse("UNAUTHORIZED", "Admin credentials required"),
+        HttpStatus.UNAUTHORIZED
+    );
+  }
+
   @ExceptionHandler(AcquiringBankUnavailableException.class)
   public ResponseEntity<ErrorResponse> handleBankUnavailable(AcquiringBankUnavailableException ex) {
     LOG.warn("Acquiring bank unavailable", ex);
@@ -52,4 +86,36 @@ public class CommonExceptionHandler {
         HttpStatus.SERVICE_UNAVAILABLE
     );
   }
+
+  @ExceptionHandler(RateLimitExceededException.class)
+  public ResponseEntity<ErrorResponse> handleRateLimited(RateLimitExceededException ex) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(new ErrorResponse("RATE_LIMITED", "Too many requests"));
+  }
+
+  @ExceptionHandler(DuplicatePaymentException.class)
+  public ResponseEntity<ErrorResponse> handleDuplicate(DuplicatePaymentException ex) {
+    return new ResponseEntity<>(
+        new ErrorResponse("DUPLICATE_PAYMENT", "Identical payment is already being processed"),
+        HttpStatus.CONFLICT
+    );
+  }
+
+  @ExceptionHandler(ServiceDrainingException.class)
+  public ResponseEntity<ErrorResponse> handleDraining(ServiceDrainingException ex) {
+    // Close the connection so the client's next attempt lands on another instance
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.CONNECTION, "close")
+        .body(new ErrorResponse("DRAINING", "Service is shutting down, retry elsewhere"));
+  }
+
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<ErrorResponse> handleDeadlineExceeded(DeadlineExceededException ex) {
+    LOG.debug("Request deadline exceeded", ex);
+    return new ResponseEntity<>(
+        new ErrorResponse("DEADLINE_EXCEEDED", "Request deadline exceeded"),
+        HttpStatus.GATEWAY_TIMEOUT
+    );
+  }
 }
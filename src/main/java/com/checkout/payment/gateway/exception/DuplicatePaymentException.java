@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class DuplicatePaymentException extends RuntimeException {
+  public DuplicatePaymentException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,17 @@
+package com.checkout.payment.gateway.exception;
+
+import java.util.List;
+
+public class InvalidEventRangeException extends RuntimeException {
+
+  private final List<String> errors;
+
+  public InvalidEventRangeException(List<String> errors) {
+    super("Invalid event range: " + errors);
+    this.errors = errors;
+  }
+
+  public List<String> getErrors() {
+    return errors;
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class ServiceDrainingException extends RuntimeException {
+  public ServiceDrainingException(String message) {
+    super(message);
+  }
+}
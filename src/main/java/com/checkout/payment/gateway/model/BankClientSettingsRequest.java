@@ -0,0 +1,35 @@
+package com.checkout.payment.gateway.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Partial update of the bank client settings; fields left null keep their current value. */
+public class BankClientSettingsRequest {
+
+  @JsonProperty("base_url")
+  private String baseUrl;
+
+  @JsonProperty("connect_timeout_ms")
+  private Integer connectTimeoutMs;
+
+  @JsonProperty("read_timeout_ms")
+  private Integer readTimeoutMs;
+
+  @JsonProperty("max_concurrent_calls")
+  private Integer maxConcurrentCalls;
+
+  public String getBaseUrl() { return baseUrl; }
+  public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+  public Integer getConnectTimeoutMs() { return connectTimeoutMs; }
+  public void setConnectTimeoutMs(Integer connectTimeoutMs) {
+    this.connectTimeoutMs = connectTimeoutMs;
+  }
+
+  public Integer getReadTimeoutMs() { return readTimeoutMs; }
+  public void setReadTimeoutMs(Integer readTimeoutMs) { this.readTimeoutMs = readTimeoutMs; }
+
+  public Integer getMaxConcurrentCalls() { return maxConcurrentCalls; }
+  public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+    this.maxConcurrentCalls = maxConcurrentCalls;
+  }
+}
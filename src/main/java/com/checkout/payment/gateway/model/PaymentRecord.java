@@ -0,0 +1,140 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Immutable stored form of a processed payment, safe to share between threads without further
+ * synchronization.
+ *
+ * <p>The JSON body returned by {@code GET /payments/{id}} is rendered once, when the record is
+ * created, so reads copy bytes instead of running Jackson. The rendering has the same fields,
+ * order and format as Jackson's output for {@link PostPaymentResponse}. Other formats, such as
+ * CBOR, serialize the getters through the regular message converters.
+ */
+@JsonPropertyOrder({"id", "status", "currency", "amount", "card_number_last_four", "expiry_month",
+    "expiry_year"})
+public final class PaymentRecord {
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private final UUID id;
+  private final PaymentStatus status;
+  private final String cardNumberLastFour;
+  private final int expiryMonth;
+  private final int expiryYear;
+  private final String currency;
+  private final long amount;
+  private final byte[] json;
+
+  public PaymentRecord(UUID id, PaymentStatus status, String cardNumberLastFour, int expiryMonth,
+      int expiryYear, String currency, long amount) {
+    this.id = id;
+    this.status = status;
+    this.cardNumberLastFour = cardNumberLastFour;
+    this.expiryMonth = expiryMonth;
+    this.expiryYear = expiryYear;
+    this.currency = currency;
+    this.amount = amount;
+    this.json = render();
+  }
+
+  public static PaymentRecord of(PostPaymentResponse payment) {
+    return new PaymentRecord(payment.getId(), payment.getStatus(),
+        payment.getCardNumberLastFour(), payment.getExpiryMonth(), payment.getExpiryYear(),
+        payment.getCurrency(), payment.getAmount());
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
+
+  @JsonProperty("card_number_last_four")
+  public String getCardNumberLastFour() {
+    return cardNumberLastFour;
+  }
+
+  @JsonProperty("expiry_month")
+  public int getExpiryMonth() {
+    return expiryMonth;
+  }
+
+  @JsonProperty("expiry_year")
+  public int getExpiryYear() {
+    return expiryYear;
+  }
+
+  public String getCurrency() {
+    return currency;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  /** Size in bytes of the pre-rendered JSON body. */
+  public int jsonLength() {
+    return json.length;
+  }
+
+  /** Writes the pre-rendered JSON body. */
+  public void writeJsonTo(OutputStream out) throws IOException {
+    out.write(json);
+  }
+
+  public PostPaymentResponse toResponse() {
+    PostPaymentResponse response = new PostPaymentResponse();
+    response.setId(id);
+    response.setStatus(status);
+    response.setCardNumberLastFour(cardNumberLastFour);
+    response.setExpiryMonth(expiryMonth);
+    response.setExpiryYear(expiryYear);
+    response.setCurrency(currency);
+    response.setAmount(amount);
+    return response;
+  }
+
+  private byte[] render() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(192);
+    try (JsonGenerator generator = JSON.createGenerator(out)) {
+      generator.writeStartObject();
+      generator.writeStringField("id", id == null ? null : id.toString());
+      generator.writeStringField("status", status == null ? null : status.getName());
+      generator.writeStringField("currency", currency);
+      generator.writeNumberField("amount", amount);
+      generator.writeStringField("card_number_last_four", cardNumberLastFour);
+      generator.writeNumberField("expiry_month", expiryMonth);
+      generator.writeNumberField("expiry_year", expiryYear);
+      generator.writeEndObject();
+    } catch (IOException ex) {
+      // Only reachable through the in-memory stream, which does not throw
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentRecord{" +
+        "id=" + id +
+        ", status=" + status +
+        ", cardNumberLastFour=" + cardNumberLastFour +
+        ", expiryMonth=" + expiryMonth +
+        ", expiryYear=" + expiryYear +
+        ", currency='" + currency + '\'' +
+        ", amount=" + amount +
+        '}';
+  }
+}
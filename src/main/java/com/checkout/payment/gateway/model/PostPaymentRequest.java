@@ -1,5 +1,6 @@
 package com.checkout.payment.gateway.model;
 
+import com.checkout.payment.gateway.validation.ValidCurrency;
 import com.checkout.payment.gateway.validation.ValidExpiryDate;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Max;
@@ -33,12 +34,12 @@ public class PostPaymentRequest implements Serializable {
 
   @NotBlank(message = "Currency is required")
   @Size(min = 3, max = 3, message = "Currency must be 3 characters")
-  @Pattern(regexp = "^(GBP|USD|EUR)$", message = "Currency must be one of: GBP, USD, EUR")
+  @ValidCurrency
   private String currency;
 
   @NotNull(message = "Amount is required")
   @Positive(message = "Amount must be a positive integer")
-  private Integer amount;
+  private Long amount;
 
   @NotBlank(message = "CVV is required")
   @Size(min = 3, max = 4, message = "CVV must be 3 or 4 characters")
@@ -57,12 +58,18 @@ public class PostPaymentRequest implements Serializable {
   public String getCurrency() { return currency; }
   public void setCurrency(String currency) { this.currency = currency; }
 
-  public Integer getAmount() { return amount; }
-  public void setAmount(Integer amount) { this.amount = amount; }
+  /** Amount in the currency's minor unit, e.g. pence for GBP and yen for JPY. */
+  public Long getAmount() { return amount; }
+  public void setAmount(Long amount) { this.amount = amount; }
 
   public String getCvv() { return cvv; }
   public void setCvv(String cvv) { this.cvv = cvv; }
 
+  // Primitive views of the numeric fields, for use once the request has passed validation
+  public int expiryMonthValue() { return expiryMonth; }
+  public int expiryYearValue() { return expiryYear; }
+  public long amountValue() { return amount; }
+
   public String lastFourDigits() {
     if (cardNumber == null || cardNumber.length() < 4) return cardNumber;
     return cardNumber.substring(cardNumber.length() - 4);
@@ -76,10 +83,10 @@ public class PostPaymentRequest implements Serializable {
         : null;
     return "PostPaymentRequest{"
         + "cardNumber='" + masked + '\''
-        + ", expiryMonth=" + expiryMonth
-        + ", expiryYear=" + expiryYear
+        + ", expiryMonth=" + getExpiryMonth()
+        + ", expiryYear=" + getExpiryYear()
         + ", currency='" + currency + '\''
-        + ", amount=" + amount
+        + ", amount=" + getAmount()
         + '}';
   }
 }
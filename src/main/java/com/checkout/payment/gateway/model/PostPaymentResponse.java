@@ -17,7 +17,7 @@ public class PostPaymentResponse {
   private int expiryYear;
 
   private String currency;
-  private int amount;
+  private long amount;
 
   public UUID getId() {
     return id;
@@ -67,11 +67,11 @@ public class PostPaymentResponse {
     this.currency = currency;
   }
 
-  public int getAmount() {
+  public long getAmount() {
     return amount;
   }
 
-  public void setAmount(int amount) {
+  public void setAmount(long amount) {
     this.amount = amount;
   }
 
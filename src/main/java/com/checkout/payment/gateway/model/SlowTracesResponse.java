@@ -0,0 +1,107 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.tracing.RequestTrace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SlowTracesResponse {
+
+  @JsonProperty("threshold_ms")
+  private final double thresholdMs;
+
+  private final List<Trace> traces;
+
+  public SlowTracesResponse(long thresholdNanos, List<RequestTrace> traces) {
+    this.thresholdMs = millis(thresholdNanos);
+    this.traces = traces.stream().map(Trace::new).toList();
+  }
+
+  public double getThresholdMs() {
+    return thresholdMs;
+  }
+
+  public List<Trace> getTraces() {
+    return traces;
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  public static class Trace {
+
+    @JsonProperty("trace_id")
+    private final String traceId;
+    private final String method;
+    private final String path;
+    private final int status;
+    @JsonProperty("duration_ms")
+    private final double durationMs;
+    private final List<Stage> stages;
+
+    private Trace(RequestTrace trace) {
+      this.traceId = trace.getTraceId();
+      this.method = trace.getMethod();
+      this.path = trace.getPath();
+      this.status = trace.getStatus();
+      this.durationMs = millis(trace.getDurationNanos());
+      this.stages = new ArrayList<>(trace.getStageCount());
+      for (int i = 0; i < trace.getStageCount(); i++) {
+        stages.add(new Stage(trace.getStageName(i), millis(trace.getStageOffsetNanos(i)),
+            millis(trace.getStageDurationNanos(i))));
+      }
+    }
+
+    public String getTraceId() {
+      return traceId;
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    public double getDurationMs() {
+      return durationMs;
+    }
+
+    public List<Stage> getStages() {
+      return stages;
+    }
+  }
+
+  public static class Stage {
+
+    private final String name;
+    @JsonProperty("offset_ms")
+    private final double offsetMs;
+    @JsonProperty("duration_ms")
+    private final double durationMs;
+
+    private Stage(String name, double offsetMs, double durationMs) {
+      this.name = name;
+      this.offsetMs = offsetMs;
+      this.durationMs = durationMs;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public double getOffsetMs() {
+      return offsetMs;
+    }
+
+    public double getDurationMs() {
+      return durationMs;
+    }
+  }
+}
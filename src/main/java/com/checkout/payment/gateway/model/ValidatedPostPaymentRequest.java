@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.model;
+
+/**
+ * A {@link PostPaymentRequest} whose constraints were already checked while it was parsed, so
+ * Bean Validation can skip it. The numeric fields are held as primitives, so reading them through
+ * the {@code ...Value()} accessors never boxes.
+ */
+public class ValidatedPostPaymentRequest extends PostPaymentRequest {
+
+  private int expiryMonth;
+  private int expiryYear;
+  private long amount;
+
+  public ValidatedPostPaymentRequest(String cardNumber, int expiryMonth, int expiryYear,
+      String currency, long amount, String cvv) {
+    setCardNumber(cardNumber);
+    setExpiryMonth(expiryMonth);
+    setExpiryYear(expiryYear);
+    setCurrency(currency);
+    setAmount(amount);
+    setCvv(cvv);
+  }
+
+  public void setExpiryMonth(int expiryMonth) { this.expiryMonth = expiryMonth; }
+  public void setExpiryYear(int expiryYear) { this.expiryYear = expiryYear; }
+  public void setAmount(long amount) { this.amount = amount; }
+
+  @Override
+  public int expiryMonthValue() { return expiryMonth; }
+  @Override
+  public int expiryYearValue() { return expiryYear; }
+  @Override
+  public long amountValue() { return amount; }
+
+  // The boxed accessors stay consistent with the primitive fields for code that still uses them
+  @Override
+  public Integer getExpiryMonth() { return expiryMonth; }
+  @Override
+  public void setExpiryMonth(Integer expiryMonth) { this.expiryMonth = expiryMonth; }
+
+  @Override
+  public Integer getExpiryYear() { return expiryYear; }
+  @Override
+  public void setExpiryYear(Integer expiryYear) { this.expiryYear = expiryYear; }
+
+  @Override
+  public Long getAmount() { return amount; }
+  @Override
+  public void setAmount(Long amount) { this.amount = amount; }
+}
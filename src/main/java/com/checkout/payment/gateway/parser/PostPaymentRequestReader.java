@@ -0,0 +1,249 @@
+package com.checkout.payment.gateway.parser;
+
+import com.checkout.payment.gateway.currency.IsoCurrency;
+import com.checkout.payment.gateway.exception.PaymentValidationException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.ValidatedPostPaymentRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * Single-pass reader for {@link PostPaymentRequest} bodies.
+ *
+ * <p>Walks the JSON tokens once with a streaming {@link JsonParser}, keeping the numeric fields
+ * in primitives, and applies the same rules and messages as the Bean Validation annotations on
+ * {@link PostPaymentRequest} as it goes. There is no tree, no reflective binding and no second
+ * validation walk. Invalid requests fail with {@link PaymentValidationException}, which is
+ * rendered like a Bean Validation failure.
+ *
+ * <p>It only takes part in reading: {@link #canWrite(Class, MediaType)} is false for every type,
+ * so responses always go to the next converter.
+ */
+public class PostPaymentRequestReader extends AbstractHttpMessageConverter<PostPaymentRequest> {
+
+  // Matches the object name Spring reports for global errors on the @RequestBody argument
+  private static final String OBJECT_NAME = "postPaymentRequest";
+
+  private final JsonFactory jsonFactory;
+
+  public PostPaymentRequestReader(JsonFactory jsonFactory) {
+    super(MediaType.APPLICATION_JSON);
+    this.jsonFactory = jsonFactory;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PostPaymentRequest.class == clazz;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected PostPaymentRequest readInternal(Class<? extends PostPaymentRequest> clazz,
+      HttpInputMessage inputMessage) throws IOException {
+    String cardNumber = null;
+    String currency = null;
+    String cvv = null;
+    int expiryMonth = 0;
+    int expiryYear = 0;
+    long amount = 0;
+    boolean hasExpiryMonth = false;
+    boolean hasExpiryYear = false;
+    boolean hasAmount = false;
+
+    try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new HttpMessageNotReadableException("Payment request must be a JSON object",
+            inputMessage);
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        switch (field) {
+          case "card_number" -> cardNumber = readString(parser, value, inputMessage);
+          case "currency" -> currency = readString(parser, value, inputMessage);
+          case "cvv" -> cvv = readString(parser, value, inputMessage);
+          case "expiry_month" -> {
+            hasExpiryMonth = !isAbsent(parser, value);
+            expiryMonth = hasExpiryMonth ? readInt(parser, value, inputMessage) : 0;
+          }
+          case "expiry_year" -> {
+            hasExpiryYear = !isAbsent(parser, value);
+            expiryYear = hasExpiryYear ? readInt(parser, value, inputMessage) : 0;
+          }
+          case "amount" -> {
+            hasAmount = !isAbsent(parser, value);
+            amount = hasAmount ? readLong(parser, value, inputMessage) : 0;
+          }
+          default -> parser.skipChildren();
+        }
+      }
+    } catch (JsonProcessingException ex) {
+      throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(),
+          ex, inputMessage);
+    }
+
+    // Errors are keyed by bean property name, as Spring reports Bean Validation field errors
+    List<String> errors = new ArrayList<>();
+    checkDigits(errors, "cardNumber", cardNumber, "Card number is required", 14, 19,
+        "Card number must be between 14 and 19 digits",
+        "Card number must contain only numeric characters");
+    if (!hasExpiryMonth) {
+      errors.add("expiryMonth: Expiry month is required");
+    } else if (expiryMonth < 1 || expiryMonth > 12) {
+      errors.add("expiryMonth: Expiry month must be between 1 and 12");
+    }
+    if (!hasExpiryYear) {
+      errors.add("expiryYear: Expiry year is required");
+    } else if (expiryYear < 2000) {
+      errors.add("expiryYear: Expiry year must be 2000 or later");
+    }
+    checkCurrency(errors, currency);
+    if (!hasAmount) {
+      errors.add("amount: Amount is required");
+    } else if (amount <= 0) {
+      errors.add("amount: Amount must be a positive integer");
+    }
+    checkDigits(errors, "cvv", cvv, "CVV is required", 3, 4, "CVV must be 3 or 4 characters",
+        "CVV must contain only numeric characters");
+    if (hasExpiryMonth && hasExpiryYear) {
+      checkExpiry(errors, expiryMonth, expiryYear);
+    }
+    if (!errors.isEmpty()) {
+      throw new PaymentValidationException(errors);
+    }
+    return new ValidatedPostPaymentRequest(cardNumber, expiryMonth, expiryYear, currency, amount,
+        cvv);
+  }
+
+  @Override
+  protected void writeInternal(PostPaymentRequest request, HttpOutputMessage outputMessage) {
+    throw new HttpMessageNotWritableException("PostPaymentRequestReader only reads requests");
+  }
+
+  private static boolean isAbsent(JsonParser parser, JsonToken value) throws IOException {
+    // Jackson binds null and "" to a null Integer, which @NotNull then reports as missing
+    return value == JsonToken.VALUE_NULL
+        || (value == JsonToken.VALUE_STRING && parser.getText().isBlank());
+  }
+
+  private static String readString(JsonParser parser, JsonToken value,
+      HttpInputMessage inputMessage) throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (value.isScalarValue()) {
+      return parser.getText();
+    }
+    throw new HttpMessageNotReadableException(
+        "Expected a string for " + parser.getCurrentName(), inputMessage);
+  }
+
+  private static int readInt(JsonParser parser, JsonToken value, HttpInputMessage inputMessage)
+      throws IOException {
+    try {
+      return Math.toIntExact(readLong(parser, value, inputMessage));
+    } catch (ArithmeticException ex) {
+      throw new HttpMessageNotReadableException(
+          "Expected an integer for " + parser.getCurrentName(), inputMessage);
+    }
+  }
+
+  private static long readLong(JsonParser parser, JsonToken value, HttpInputMessage inputMessage)
+      throws IOException {
+    try {
+      if (value == JsonToken.VALUE_NUMBER_INT
+          && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+        return parser.getLongValue();
+      }
+      if (value == JsonToken.VALUE_NUMBER_FLOAT) {
+        double number = parser.getDoubleValue();
+        if (number >= Long.MIN_VALUE && number <= Long.MAX_VALUE) {
+          return (long) number;
+        }
+      }
+      if (value == JsonToken.VALUE_STRING) {
+        return Long.parseLong(parser.getText().trim());
+      }
+    } catch (NumberFormatException ex) {
+      // fall through to the error below
+    }
+    throw new HttpMessageNotReadableException(
+        "Expected an integer for " + parser.getCurrentName(), inputMessage);
+  }
+
+  // Same checks as @NotBlank, @Size and @Pattern("^[0-9]+$"), each reported independently
+  private static void checkDigits(List<String> errors, String field, String value,
+      String requiredMessage, int minLength, int maxLength, String sizeMessage,
+      String digitsMessage) {
+    if (value == null) {
+      errors.add(field + ": " + requiredMessage);
+      return;
+    }
+    if (value.isBlank()) {
+      errors.add(field + ": " + requiredMessage);
+    }
+    if (value.length() < minLength || value.length() > maxLength) {
+      errors.add(field + ": " + sizeMessage);
+    }
+    if (!isAllDigits(value)) {
+      errors.add(field + ": " + digitsMessage);
+    }
+  }
+
+  private static void checkCurrency(List<String> errors, String currency) {
+    if (currency == null) {
+      errors.add("currency: Currency is required");
+      return;
+    }
+    if (currency.isBlank()) {
+      errors.add("currency: Currency is required");
+    }
+    if (currency.length() != 3) {
+      errors.add("currency: Currency must be 3 characters");
+    }
+    if (IsoCurrency.fromCode(currency) == null) {
+      errors.add("currency: Currency must be a supported ISO 4217 code");
+    }
+  }
+
+  // Mirrors ExpiryDateValidator, including its fallback message for impossible dates
+  private static void checkExpiry(List<String> errors, int month, int year) {
+    try {
+      if (YearMonth.of(year, month).isBefore(YearMonth.now())) {
+        errors.add(OBJECT_NAME + ": Expiry date must be in the future");
+      }
+    } catch (DateTimeException ex) {
+      errors.add(OBJECT_NAME + ": Card expiry date must be in the future");
+    }
+  }
+
+  private static boolean isAllDigits(String value) {
+    if (value.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
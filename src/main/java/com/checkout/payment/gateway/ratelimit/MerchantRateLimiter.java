@@ -0,0 +1,130 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-merchant token bucket, implemented as GCRA (generic cell rate algorithm).
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the next
+ * request, so acquiring a token is one map lookup plus one CAS - no locks and no allocation once
+ * a merchant's bucket exists.
+ *
+ * <p>At most {@code maxKeys} buckets are tracked. Idle buckets are dropped by a background sweep,
+ * never on the request thread; until the sweep makes room, keys seen for the first time while
+ * the map is full share one overflow bucket.
+ */
+@Component
+public class MerchantRateLimiter {
+
+  private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong overflowBucket;
+  private final LongSupplier nanoClock;
+  private final long emissionIntervalNanos;
+  private final long burstWindowNanos;
+  private final int maxKeys;
+  private final boolean enabled;
+  private final long sweepIntervalMs;
+  private ScheduledExecutorService sweeper;
+
+  @Autowired
+  public MerchantRateLimiter(
+      @Value("${rate-limit.enabled:false}") boolean enabled,
+      @Value("${rate-limit.requests-per-second:100}") double requestsPerSecond,
+      @Value("${rate-limit.burst:200}") int burst,
+      @Value("${rate-limit.max-keys:200000}") int maxKeys,
+      @Value("${rate-limit.sweep-interval-ms:10000}") long sweepIntervalMs) {
+    this(requestsPerSecond, burst, maxKeys, System::nanoTime, enabled, sweepIntervalMs);
+  }
+
+  MerchantRateLimiter(double requestsPerSecond, int burst, int maxKeys, LongSupplier nanoClock) {
+    this(requestsPerSecond, burst, maxKeys, nanoClock, false, 0);
+  }
+
+  private MerchantRateLimiter(double requestsPerSecond, int burst, int maxKeys,
+      LongSupplier nanoClock, boolean enabled, long sweepIntervalMs) {
+    if (requestsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Rate limit must be positive with a burst of at least 1");
+    }
+    this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    this.burstWindowNanos = emissionIntervalNanos * burst;
+    this.maxKeys = maxKeys;
+    this.nanoClock = nanoClock;
+    this.enabled = enabled;
+    this.sweepIntervalMs = sweepIntervalMs;
+    this.overflowBucket = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "rate-limit-sweep");
+      thread.setDaemon(true);
+      return thread;
+    });
+    sweeper.scheduleWithFixedDelay(this::evictIdle, sweepIntervalMs, sweepIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (sweeper != null) {
+      sweeper.shutdownNow();
+    }
+  }
+
+  /**
+   * Takes one token from the merchant's bucket.
+   *
+   * @return 0 if the request is allowed, otherwise the number of nanoseconds until a token is free
+   */
+  public long tryAcquire(String merchantKey) {
+    long now = nanoClock.getAsLong();
+    AtomicLong bucket = buckets.get(merchantKey);
+    if (bucket == null) {
+      bucket = newBucket(merchantKey, now);
+    }
+    while (true) {
+      long tat = bucket.get();
+      long newTat = Math.max(tat, now) + emissionIntervalNanos;
+      long excess = newTat - now - burstWindowNanos;
+      if (excess > 0) {
+        return excess;
+      }
+      if (bucket.compareAndSet(tat, newTat)) {
+        return 0;
+      }
+    }
+  }
+
+  int trackedKeys() {
+    return buckets.size();
+  }
+
+  private AtomicLong newBucket(String merchantKey, long now) {
+    // Racing first requests can overshoot maxKeys by at most one key per thread
+    if (buckets.size() >= maxKeys) {
+      return overflowBucket;
+    }
+    return buckets.computeIfAbsent(merchantKey, k -> new AtomicLong(now));
+  }
+
+  // A bucket whose theoretical arrival time has passed is full again, so dropping it is lossless.
+  void evictIdle() {
+    long now = nanoClock.getAsLong();
+    buckets.values().removeIf(bucket -> bucket.get() <= now);
+  }
+}
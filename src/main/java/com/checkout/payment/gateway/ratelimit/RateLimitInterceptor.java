@@ -0,0 +1,41 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import com.checkout.payment.gateway.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the merchant rate limit before the request body is bound or validated, so a throttled
+ * request never costs us a parse or a bank call.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  public static final String API_KEY_HEADER = "X-Api-Key";
+  static final String ANONYMOUS_KEY_PREFIX = "anonymous:";
+
+  private final MerchantRateLimiter rateLimiter;
+
+  public RateLimitInterceptor(MerchantRateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    String apiKey = request.getHeader(API_KEY_HEADER);
+    if (apiKey == null || apiKey.isBlank()) {
+      // Unidentified callers are limited per client address rather than as one shared bucket
+      apiKey = ANONYMOUS_KEY_PREFIX + request.getRemoteAddr();
+    }
+    long waitNanos = rateLimiter.tryAcquire(apiKey);
+    if (waitNanos > 0) {
+      // Retry-After is whole seconds, so round up rather than invite an immediate retry
+      long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+          / TimeUnit.SECONDS.toNanos(1));
+      throw new RateLimitExceededException("Rate limit exceeded", retryAfter);
+    }
+    return true;
+  }
+}
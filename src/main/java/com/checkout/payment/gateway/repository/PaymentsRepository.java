@@ -1,6 +1,8 @@
 package com.checkout.payment.gateway.repository;
 
-import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.PaymentRecord;
+import com.checkout.payment.gateway.tracing.Tracing;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,14 +12,36 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class PaymentsRepository {
 
-  private final Map<UUID, PostPaymentResponse> payments = new ConcurrentHashMap<>();
+  private final Map<UUID, PaymentRecord> payments = new ConcurrentHashMap<>();
 
-  public void add(PostPaymentResponse payment) {
+  public void add(PaymentRecord payment) {
+    long started = Tracing.start();
     payments.put(payment.getId(), payment);
+    Tracing.stage("repository.add", started);
   }
 
-  public Optional<PostPaymentResponse> get(UUID id) {
-    return Optional.ofNullable(payments.get(id));
+  public Optional<PaymentRecord> get(UUID id) {
+    long started = Tracing.start();
+    PaymentRecord payment = payments.get(id);
+    Tracing.stage("repository.get", started);
+    return Optional.ofNullable(payment);
+  }
+
+  public int size() {
+    return payments.size();
+  }
+
+  /**
+   * Live view of the stored payments. Payments are only ever added and records are immutable, so
+   * iterating it sees every payment stored before the iteration began without blocking writers.
+   */
+  Collection<PaymentRecord> view() {
+    return payments.values();
+  }
+
+  /** Stores a payment read back from a snapshot; safe to call from several threads. */
+  void restore(PaymentRecord payment) {
+    payments.put(payment.getId(), payment);
   }
 
 }
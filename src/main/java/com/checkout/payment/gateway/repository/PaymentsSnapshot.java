@@ -0,0 +1,245 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.currency.IsoCurrency;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentRecord;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot of stored payments: a header followed by fixed-size, big-endian
+ * records, so any record can be found by arithmetic and the file can be split between threads.
+ *
+ * <pre>
+ * header
+ *  0  int    magic "PGSN"
+ *  4  short  format version
+ *  6  short  record size
+ *  8  long   record count
+ * 16  long   created at (epoch millis)
+ * 24  int    CRC32C of bytes 0..23
+ * 28  int    reserved
+ *
+ * record
+ *  0  long   payment id, most significant bits
+ *  8  long   payment id, least significant bits
+ * 16  long   amount (minor units)
+ * 24  int    expiry year
+ * 28  byte   expiry month
+ * 29  byte   status ordinal
+ * 30  byte[3] currency, ASCII
+ * 33  byte[4] card number last four, ASCII
+ * 37  byte[3] reserved
+ * 40  int    CRC32C of bytes 0..39
+ * </pre>
+ */
+final class PaymentsSnapshot {
+
+  static final int MAGIC = 0x5047534E;
+  static final short VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int RECORD_SIZE = 44;
+  private static final int HEADER_CHECKSUMMED_BYTES = 24;
+  private static final int CHECKSUMMED_BYTES = 40;
+  private static final int WRITE_BATCH = 4096;
+  // Keeps every mapped region under the 2 GB limit of a MappedByteBuffer
+  private static final long MAX_RECORDS_PER_REGION = Integer.MAX_VALUE / RECORD_SIZE;
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+  private PaymentsSnapshot() {
+  }
+
+  /**
+   * Writes {@code payments} to a temporary file next to {@code file}, forces it to disk and
+   * renames it over {@code file}, so readers only ever see a complete snapshot.
+   *
+   * @return the number of payments written
+   */
+  static long write(Iterable<PaymentRecord> payments, Path file) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BATCH * RECORD_SIZE);
+    long count = 0;
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      channel.position(HEADER_SIZE);
+      for (PaymentRecord payment : payments) {
+        if (!buffer.hasRemaining()) {
+          drain(buffer, channel);
+        }
+        encode(payment, buffer);
+        count++;
+      }
+      drain(buffer, channel);
+
+      // The count is only known at the end, so the header goes in last
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC)
+          .putShort(VERSION)
+          .putShort((short) RECORD_SIZE)
+          .putLong(count)
+          .putLong(System.currentTimeMillis());
+      header.putInt(checksum(header, 0, HEADER_CHECKSUMMED_BYTES)).putInt(0).flip();
+      channel.position(0);
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    return count;
+  }
+
+  /**
+   * Reads every payment in {@code file} into {@code sink}. The records are split into contiguous
+   * regions that are memory-mapped and decoded by {@code threads} threads at once, so
+   * {@code sink} must be thread-safe.
+   *
+   * @return the number of payments restored
+   * @throws IOException if the file is not a snapshot of this version, is truncated, or has a
+   *     record whose checksum does not match
+   */
+  static long restore(Path file, int threads, Consumer<PaymentRecord> sink) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long count = readHeader(channel, file);
+      if (count == 0) {
+        return 0;
+      }
+      long regions = Math.max(Math.min(threads, count),
+          (count + MAX_RECORDS_PER_REGION - 1) / MAX_RECORDS_PER_REGION);
+      long recordsPerRegion = (count + regions - 1) / regions;
+      AtomicInteger threadCount = new AtomicInteger();
+      ExecutorService readers = Executors.newFixedThreadPool(threads, r -> {
+        Thread thread = new Thread(r, "payments-restore-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      try {
+        List<Future<?>> results = new ArrayList<>();
+        for (long first = 0; first < count; first += recordsPerRegion) {
+          long records = Math.min(recordsPerRegion, count - first);
+          MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+              HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+          results.add(readers.submit(() -> {
+            while (region.hasRemaining()) {
+              sink.accept(decode(region));
+            }
+          }));
+        }
+        for (Future<?> result : results) {
+          result.get();
+        }
+      } catch (ExecutionException ex) {
+        throw new IOException("Failed to restore payments snapshot " + file, ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted restoring payments snapshot " + file, ex);
+      } finally {
+        readers.shutdownNow();
+      }
+      return count;
+    }
+  }
+
+  private static long readHeader(FileChannel channel, Path file) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        throw new EOFException("Payments snapshot " + file + " has no complete header");
+      }
+    }
+    if (header.getInt(0) != MAGIC) {
+      throw new IOException(file + " is not a payments snapshot");
+    }
+    short version = header.getShort(4);
+    if (version != VERSION || header.getShort(6) != RECORD_SIZE) {
+      throw new IOException("Unsupported payments snapshot version " + version + " in " + file);
+    }
+    if (header.getInt(HEADER_CHECKSUMMED_BYTES)
+        != checksum(header, 0, HEADER_CHECKSUMMED_BYTES)) {
+      throw new IOException("Corrupt payments snapshot header in " + file);
+    }
+    long count = header.getLong(8);
+    if (count < 0 || channel.size() != HEADER_SIZE + count * RECORD_SIZE) {
+      throw new IOException("Payments snapshot " + file + " does not hold " + count + " records");
+    }
+    return count;
+  }
+
+  static void encode(PaymentRecord payment, ByteBuffer target) {
+    int start = target.position();
+    target.putLong(payment.getId().getMostSignificantBits())
+        .putLong(payment.getId().getLeastSignificantBits())
+        .putLong(payment.getAmount())
+        .putInt(payment.getExpiryYear())
+        .put((byte) payment.getExpiryMonth())
+        .put((byte) payment.getStatus().ordinal())
+        .put(payment.getCurrency().getBytes(StandardCharsets.US_ASCII), 0, 3)
+        .put(payment.getCardNumberLastFour().getBytes(StandardCharsets.US_ASCII), 0, 4)
+        .put((byte) 0)
+        .put((byte) 0)
+        .put((byte) 0);
+    target.putInt(checksum(target, start, CHECKSUMMED_BYTES));
+  }
+
+  /**
+   * Reads one record from the buffer's current position.
+   *
+   * @throws IllegalStateException if the record's checksum does not match
+   */
+  static PaymentRecord decode(ByteBuffer source) {
+    int start = source.position();
+    if (source.getInt(start + CHECKSUMMED_BYTES) != checksum(source, start, CHECKSUMMED_BYTES)) {
+      throw new IllegalStateException("Corrupt payment record at offset " + start);
+    }
+    UUID id = new UUID(source.getLong(), source.getLong());
+    long amount = source.getLong();
+    int expiryYear = source.getInt();
+    int expiryMonth = source.get();
+    PaymentStatus status = STATUSES[source.get()];
+    byte[] text = new byte[4];
+    source.get(text, 0, 3);
+    String currency = new String(text, 0, 3, StandardCharsets.US_ASCII);
+    // Share one String per currency rather than keep millions of identical copies
+    IsoCurrency known = IsoCurrency.fromCode(currency);
+    if (known != null) {
+      currency = known.name();
+    }
+    source.get(text);
+    String cardNumberLastFour = new String(text, StandardCharsets.US_ASCII);
+    source.position(start + RECORD_SIZE);
+    return new PaymentRecord(id, status, cardNumberLastFour, expiryMonth, expiryYear, currency,
+        amount);
+  }
+
+  private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private static int checksum(ByteBuffer buffer, int start, int length) {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.slice(start, length));
+    return (int) crc.getValue();
+  }
+}
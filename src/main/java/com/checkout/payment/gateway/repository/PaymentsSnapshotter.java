@@ -0,0 +1,112 @@
+package com.checkout.payment.gateway.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the in-memory payments across restarts without a full log.
+ *
+ * <p>On startup the last snapshot (see {@link PaymentsSnapshot}) is loaded before the gateway
+ * takes traffic. A background thread then writes a new snapshot every interval, and once more on
+ * shutdown, iterating the repository while payments keep being stored. A snapshot that cannot be
+ * read stops startup rather than silently losing payments.
+ */
+@Component
+public class PaymentsSnapshotter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentsSnapshotter.class);
+
+  private final PaymentsRepository paymentsRepository;
+  private final boolean enabled;
+  private final Path file;
+  private final long intervalMs;
+  private final int restoreThreads;
+  private int lastSnapshotSize = -1;
+  private ScheduledExecutorService scheduler;
+
+  public PaymentsSnapshotter(PaymentsRepository paymentsRepository,
+      @Value("${payments.snapshot.enabled:false}") boolean enabled,
+      @Value("${payments.snapshot.file:data/payments.snapshot}") String file,
+      @Value("${payments.snapshot.interval-ms:60000}") long intervalMs,
+      @Value("${payments.snapshot.restore-threads:0}") int restoreThreads) {
+    this.paymentsRepository = paymentsRepository;
+    this.enabled = enabled;
+    this.file = Paths.get(file).toAbsolutePath();
+    this.intervalMs = intervalMs;
+    this.restoreThreads = restoreThreads > 0
+        ? restoreThreads
+        : Runtime.getRuntime().availableProcessors();
+  }
+
+  @PostConstruct
+  public void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    Files.createDirectories(file.getParent());
+    if (Files.exists(file)) {
+      long started = System.nanoTime();
+      long restored = PaymentsSnapshot.restore(file, restoreThreads, paymentsRepository::restore);
+      lastSnapshotSize = paymentsRepository.size();
+      LOG.info("Restored {} payments from {} in {} ms using {} threads", restored, file,
+          Duration.ofNanos(System.nanoTime() - started).toMillis(), restoreThreads);
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "payments-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMs, intervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (scheduler == null) {
+      return;
+    }
+    scheduler.shutdown();
+    scheduler.awaitTermination(30, TimeUnit.SECONDS);
+    // Payments drained on shutdown are only in memory until this one is written
+    snapshotQuietly();
+  }
+
+  /**
+   * Writes a snapshot unless nothing has been stored since the last one.
+   *
+   * @return the number of payments written, or -1 if the snapshot was skipped
+   */
+  public synchronized long snapshot() throws IOException {
+    // Payments are never removed, so an unchanged size means unchanged contents
+    int size = paymentsRepository.size();
+    if (size == lastSnapshotSize) {
+      return -1;
+    }
+    long started = System.nanoTime();
+    long written = PaymentsSnapshot.write(paymentsRepository.view(), file);
+    lastSnapshotSize = size;
+    LOG.info("Wrote snapshot of {} payments to {} in {} ms", written, file,
+        Duration.ofNanos(System.nanoTime() - started).toMillis());
+    return written;
+  }
+
+  private void snapshotQuietly() {
+    try {
+      snapshot();
+    } catch (IOException | RuntimeException ex) {
+      LOG.error("Failed to write payments snapshot to {}", file, ex);
+    }
+  }
+}
@@ -3,11 +3,23 @@ package com.checkout.payment.gateway.service;
 import com.checkout.payment.gateway.bank.AcquiringBankClient;
 import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
 import com.checkout.payment.gateway.bank.model.BankPaymentResponse;
+import com.checkout.payment.gateway.currency.FxRateTable;
+import com.checkout.payment.gateway.currency.FxRates;
+import com.checkout.payment.gateway.currency.IsoCurrency;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.events.PaymentEvent;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
 import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.PaymentValidationException;
+import com.checkout.payment.gateway.model.PaymentRecord;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.tracing.Tracing;
+import java.util.List;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,41 +32,111 @@ public class PaymentGatewayService {
 
   private final PaymentsRepository paymentsRepository;
   private final AcquiringBankClient acquiringBankClient;
+  private final PaymentEventLog paymentEventLog;
+  private final DuplicatePaymentGuard duplicatePaymentGuard;
+  private final FxRates fxRates;
 
   public PaymentGatewayService(PaymentsRepository paymentsRepository,
-      AcquiringBankClient acquiringBankClient) {
+      AcquiringBankClient acquiringBankClient, PaymentEventLog paymentEventLog,
+      DuplicatePaymentGuard duplicatePaymentGuard, FxRates fxRates) {
     this.paymentsRepository = paymentsRepository;
     this.acquiringBankClient = acquiringBankClient;
+    this.paymentEventLog = paymentEventLog;
+    this.duplicatePaymentGuard = duplicatePaymentGuard;
+    this.fxRates = fxRates;
   }
 
-  public PostPaymentResponse getPaymentById(UUID id) {
+  public PaymentRecord getPaymentById(UUID id) {
     LOG.debug("Requesting access to to payment with ID {}", id);
     return paymentsRepository.get(id).orElseThrow(() -> new EventProcessingException("Invalid ID"));
   }
 
-  public PostPaymentResponse processPayment(PostPaymentRequest paymentRequest) {
+  /**
+   * Authorizes the payment with the acquiring bank and records the outcome. {@code merchantId}
+   * scopes duplicate detection and may be null.
+   */
+  public PostPaymentResponse processPayment(PostPaymentRequest paymentRequest, String merchantId,
+      Deadline deadline) {
     LOG.debug("Processing payment request {}", paymentRequest);
+    // Nobody is waiting for this result any more, so don't spend a bank call on it
+    if (deadline.isExpired()) {
+      throw new DeadlineExceededException("Deadline exceeded before processing payment");
+    }
+
+    DuplicatePaymentGuard.Claim claim = duplicatePaymentGuard.claim(paymentRequest, merchantId);
+    if (!claim.isOriginal()) {
+      LOG.debug("Joining in-flight authorization of an identical payment");
+      return claim.awaitOriginal(deadline);
+    }
+    try {
+      PostPaymentResponse response = authorize(paymentRequest, deadline);
+      claim.complete(response);
+      return response;
+    } catch (Throwable ex) {
+      // Errors too, or the slot would stay claimed and refuse retries until it is reused
+      claim.fail(ex);
+      throw ex;
+    }
+  }
+
+  private PostPaymentResponse authorize(PostPaymentRequest paymentRequest, Deadline deadline) {
+    String bankCurrency = paymentRequest.getCurrency();
+    long bankAmount = paymentRequest.amountValue();
+    if (fxRates.isEnabled()) {
+      IsoCurrency from = IsoCurrency.fromCode(bankCurrency);
+      IsoCurrency to = fxRates.getSettlementCurrency();
+      FxRateTable rates = fxRates.current();
+      if (!rates.supports(from, to)) {
+        throw new PaymentValidationException(
+            List.of("currency: Payments in " + from + " cannot be settled"));
+      }
+      if (bankAmount > rates.maxConvertibleAmount(from, to)) {
+        throw new PaymentValidationException(
+            List.of("amount: Amount is too large to settle in " + to));
+      }
+      bankAmount = rates.convert(bankAmount, from, to);
+      // A small amount in a weak currency can round down to nothing
+      if (bankAmount <= 0) {
+        throw new PaymentValidationException(
+            List.of("amount: Amount is too small to settle in " + to));
+      }
+      bankCurrency = to.name();
+    }
 
     BankPaymentRequest bankRequest = new BankPaymentRequest(
         paymentRequest.getCardNumber(),
-        String.format("%02d/%d", paymentRequest.getExpiryMonth(), paymentRequest.getExpiryYear()),
-        paymentRequest.getCurrency(),
-        paymentRequest.getAmount(),
+        bankExpiryDate(paymentRequest.expiryMonthValue(), paymentRequest.expiryYearValue()),
+        bankCurrency,
+        bankAmount,
         paymentRequest.getCvv());
 
-    BankPaymentResponse bankResponse = acquiringBankClient.submitPayment(bankRequest);
+    BankPaymentResponse bankResponse;
+    long started = Tracing.start();
+    try {
+      bankResponse = acquiringBankClient.submitPayment(bankRequest, deadline);
+    } finally {
+      Tracing.stage("bank.submitPayment", started);
+    }
     boolean authorized = bankResponse != null && bankResponse.isAuthorized();
 
     PostPaymentResponse response = new PostPaymentResponse();
     response.setId(UUID.randomUUID());
     response.setStatus(authorized ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED);
     response.setCardNumberLastFour(paymentRequest.lastFourDigits());
-    response.setExpiryMonth(paymentRequest.getExpiryMonth());
-    response.setExpiryYear(paymentRequest.getExpiryYear());
+    response.setExpiryMonth(paymentRequest.expiryMonthValue());
+    response.setExpiryYear(paymentRequest.expiryYearValue());
     response.setCurrency(paymentRequest.getCurrency());
-    response.setAmount(paymentRequest.getAmount());
+    response.setAmount(paymentRequest.amountValue());
 
-    paymentsRepository.add(response);
+    paymentsRepository.add(PaymentRecord.of(response));
+    started = Tracing.start();
+    paymentEventLog.append(PaymentEvent.of(response));
+    Tracing.stage("events.append", started);
     return response;
   }
+
+  // MM/YYYY, as String.format("%02d/%d") would give but without boxing the fields
+  private static String bankExpiryDate(int month, int year) {
+    return (month < 10 ? "0" : "") + month + "/" + year;
+  }
 }
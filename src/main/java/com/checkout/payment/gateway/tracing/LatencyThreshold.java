@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks a decaying p99 of request latency and derives the "slow" threshold from it.
+ *
+ * <p>Latencies land in power-of-two microsecond buckets. Every {@code window} requests the
+ * thread that completes the window re-estimates the percentile and halves the counts, so the
+ * threshold follows the current traffic rather than all traffic since startup. The threshold is
+ * never lower than the configured floor, which keeps a quiet, fast service from capturing noise.
+ */
+class LatencyThreshold {
+
+  private static final int BUCKETS = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final AtomicLong observed = new AtomicLong();
+  private final double percentile;
+  private final long floorNanos;
+  private final int window;
+  private volatile long thresholdNanos;
+
+  LatencyThreshold(double percentile, long floorNanos, int window) {
+    this.percentile = percentile;
+    this.floorNanos = floorNanos;
+    this.window = window;
+    this.thresholdNanos = floorNanos;
+  }
+
+  long thresholdNanos() {
+    return thresholdNanos;
+  }
+
+  void record(long durationNanos) {
+    buckets.incrementAndGet(bucket(durationNanos));
+    if (observed.incrementAndGet() % window == 0) {
+      recompute();
+    }
+  }
+
+  private void recompute() {
+    long total = 0;
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    long rank = (long) Math.ceil(total * percentile);
+    long cumulative = 0;
+    int bucket = BUCKETS - 1;
+    for (int i = 0; i < BUCKETS; i++) {
+      cumulative += counts[i];
+      if (cumulative >= rank) {
+        bucket = i;
+        break;
+      }
+    }
+    // Upper bound of the bucket, so only requests beyond the estimated percentile count as slow
+    long estimate = (1L << (bucket + 1)) * 1_000;
+    thresholdNanos = Math.max(floorNanos, estimate);
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets.addAndGet(i, -(counts[i] / 2));
+    }
+  }
+
+  private static int bucket(long durationNanos) {
+    long micros = Math.max(1, durationNanos / 1_000);
+    return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+  }
+}
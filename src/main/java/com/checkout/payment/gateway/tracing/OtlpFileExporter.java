@@ -0,0 +1,130 @@
+package com.checkout.payment.gateway.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends captured traces to a file as OTLP/JSON {@code ExportTraceServiceRequest} documents,
+ * one per line, which the OpenTelemetry Collector's {@code otlpjsonfile} receiver can pick up.
+ * Each request becomes a server span with one child span per recorded stage. Writing happens on
+ * a background thread; when it falls behind, traces are dropped rather than queued without bound.
+ */
+@Component
+public class OtlpFileExporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OtlpFileExporter.class);
+  private static final String SERVICE_NAME = "payment-gateway";
+  private static final int SPAN_KIND_INTERNAL = 1;
+  private static final int SPAN_KIND_SERVER = 2;
+  private static final int STATUS_CODE_ERROR = 2;
+
+  private final ObjectMapper objectMapper;
+  private final Path file;
+  private final ThreadPoolExecutor writer;
+
+  public OtlpFileExporter(ObjectMapper objectMapper,
+      @Value("${tracing.export-file:}") String exportFile) {
+    this.objectMapper = objectMapper;
+    this.file = exportFile.isBlank() ? null : Paths.get(exportFile);
+    this.writer = file == null ? null : new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1024), r -> {
+          Thread thread = new Thread(r, "trace-exporter");
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+  }
+
+  void export(RequestTrace trace) {
+    if (writer != null) {
+      writer.execute(() -> write(trace));
+    }
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+    if (writer != null) {
+      writer.shutdown();
+      writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+  }
+
+  ObjectNode toOtlp(RequestTrace trace) {
+    ObjectNode request = objectMapper.createObjectNode();
+    ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+    addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name",
+        SERVICE_NAME);
+    ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+    scopeSpans.putObject("scope").put("name", SERVICE_NAME);
+    ArrayNode spans = scopeSpans.putArray("spans");
+
+    String rootSpanId = spanId();
+    long start = trace.getStartEpochNanos();
+    ObjectNode root = span(spans, trace.getTraceId(), rootSpanId, null,
+        trace.getMethod() + " " + trace.getPath(), SPAN_KIND_SERVER, start,
+        start + trace.getDurationNanos());
+    ArrayNode attributes = root.putArray("attributes");
+    addAttribute(attributes, "http.request.method", trace.getMethod());
+    addAttribute(attributes, "url.path", trace.getPath());
+    attributes.addObject().put("key", "http.response.status_code")
+        .putObject("value").put("intValue", String.valueOf(trace.getStatus()));
+    if (trace.getStatus() >= 500) {
+      root.putObject("status").put("code", STATUS_CODE_ERROR);
+    }
+    for (int i = 0; i < trace.getStageCount(); i++) {
+      long stageStart = start + trace.getStageOffsetNanos(i);
+      span(spans, trace.getTraceId(), spanId(), rootSpanId, trace.getStageName(i),
+          SPAN_KIND_INTERNAL, stageStart, stageStart + trace.getStageDurationNanos(i));
+    }
+    return request;
+  }
+
+  private void write(RequestTrace trace) {
+    try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      out.write(objectMapper.writeValueAsString(toOtlp(trace)));
+      out.newLine();
+    } catch (IOException ex) {
+      LOG.warn("Failed to export trace {} to {}", trace.getTraceId(), file, ex);
+    }
+  }
+
+  private static ObjectNode span(ArrayNode spans, String traceId, String spanId,
+      String parentSpanId, String name, int kind, long startNanos, long endNanos) {
+    ObjectNode span = spans.addObject()
+        .put("traceId", traceId)
+        .put("spanId", spanId);
+    if (parentSpanId != null) {
+      span.put("parentSpanId", parentSpanId);
+    }
+    // OTLP/JSON encodes 64-bit integers as strings
+    return span.put("name", name)
+        .put("kind", kind)
+        .put("startTimeUnixNano", String.valueOf(startNanos))
+        .put("endTimeUnixNano", String.valueOf(endNanos));
+  }
+
+  private static void addAttribute(ArrayNode attributes, String key, String value) {
+    attributes.addObject().put("key", key).putObject("value").put("stringValue", value);
+  }
+
+  private static String spanId() {
+    return String.format("%016x", ThreadLocalRandom.current().nextLong());
+  }
+}
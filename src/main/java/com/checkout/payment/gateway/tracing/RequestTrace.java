@@ -0,0 +1,130 @@
+package com.checkout.payment.gateway.tracing;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stage timeline of one request.
+ *
+ * <p>Each request thread records into its own trace, which {@link #begin} resets for the next
+ * request, so recording costs no allocation. Only a request that is kept is {@link #capture
+ * captured}: the copy gets stage arrays trimmed to the recorded stages and its trace id, and is
+ * never written again, so it can be read from any thread.
+ */
+public final class RequestTrace {
+
+  private static final int MAX_STAGES = 32;
+
+  private final String traceId;
+  private final String[] stageNames;
+  private final long[] stageStarts;
+  private final long[] stageDurations;
+  private String method;
+  private String path;
+  private long startEpochNanos;
+  private long startNanos;
+  private int stageCount;
+  private long durationNanos;
+  private int status;
+
+  RequestTrace() {
+    this.traceId = null;
+    this.stageNames = new String[MAX_STAGES];
+    this.stageStarts = new long[MAX_STAGES];
+    this.stageDurations = new long[MAX_STAGES];
+  }
+
+  RequestTrace(String method, String path) {
+    this();
+    begin(method, path);
+  }
+
+  private RequestTrace(RequestTrace source) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    this.traceId = String.format("%016x%016x", random.nextLong(), random.nextLong());
+    this.stageNames = Arrays.copyOf(source.stageNames, source.stageCount);
+    this.stageStarts = Arrays.copyOf(source.stageStarts, source.stageCount);
+    this.stageDurations = Arrays.copyOf(source.stageDurations, source.stageCount);
+    this.method = source.method;
+    this.path = source.path;
+    this.startEpochNanos = source.startEpochNanos;
+    this.startNanos = source.startNanos;
+    this.stageCount = source.stageCount;
+    this.durationNanos = source.durationNanos;
+    this.status = source.status;
+  }
+
+  /** Starts recording a new request, discarding whatever was recorded before. */
+  void begin(String method, String path) {
+    Arrays.fill(stageNames, 0, stageCount, null);
+    this.method = method;
+    this.path = path;
+    this.startEpochNanos = System.currentTimeMillis() * 1_000_000;
+    this.startNanos = System.nanoTime();
+    this.stageCount = 0;
+    this.durationNanos = 0;
+    this.status = 0;
+  }
+
+  void recordStage(String name, long startedNanos, long endedNanos) {
+    if (stageCount < MAX_STAGES) {
+      stageNames[stageCount] = name;
+      stageStarts[stageCount] = startedNanos - startNanos;
+      stageDurations[stageCount] = endedNanos - startedNanos;
+      stageCount++;
+    }
+  }
+
+  long finish(int status) {
+    this.status = status;
+    this.durationNanos = System.nanoTime() - startNanos;
+    return durationNanos;
+  }
+
+  /** Copies the finished request into a trace of its own, with a fresh trace id. */
+  RequestTrace capture() {
+    return new RequestTrace(this);
+  }
+
+  /** The trace id, or null if this trace has not been captured. */
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public long getStartEpochNanos() {
+    return startEpochNanos;
+  }
+
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public int getStageCount() {
+    return stageCount;
+  }
+
+  public String getStageName(int index) {
+    return stageNames[index];
+  }
+
+  /** Nanoseconds from the start of the request to the start of the stage. */
+  public long getStageOffsetNanos(int index) {
+    return stageStarts[index];
+  }
+
+  public long getStageDurationNanos(int index) {
+    return stageDurations[index];
+  }
+}
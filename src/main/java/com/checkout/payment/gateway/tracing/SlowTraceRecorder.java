@@ -0,0 +1,66 @@
+package com.checkout.payment.gateway.tracing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tail-based sampler for request traces. Every finished request feeds the latency estimate; only
+ * requests slower than the current threshold are kept, in a fixed-size ring that overwrites the
+ * oldest entry, and handed to the exporter. Fast requests cost a histogram increment; only kept
+ * requests are copied out of the request thread's trace and given a trace id.
+ */
+@Component
+public class SlowTraceRecorder {
+
+  private final LatencyThreshold threshold;
+  private final AtomicReferenceArray<RequestTrace> ring;
+  private final AtomicLong captured = new AtomicLong();
+  private final OtlpFileExporter exporter;
+
+  public SlowTraceRecorder(
+      @Value("${tracing.slow-percentile:0.99}") double percentile,
+      @Value("${tracing.min-slow-threshold-ms:50}") long minThresholdMs,
+      @Value("${tracing.threshold-window:1024}") int thresholdWindow,
+      @Value("${tracing.buffer-size:256}") int bufferSize,
+      OtlpFileExporter exporter) {
+    this.threshold = new LatencyThreshold(percentile,
+        Duration.ofMillis(minThresholdMs).toNanos(), thresholdWindow);
+    this.ring = new AtomicReferenceArray<>(bufferSize);
+    this.exporter = exporter;
+  }
+
+  void complete(RequestTrace trace) {
+    long duration = trace.getDurationNanos();
+    long limit = threshold.thresholdNanos();
+    threshold.record(duration);
+    if (duration < limit) {
+      return;
+    }
+    RequestTrace kept = trace.capture();
+    long slot = captured.getAndIncrement();
+    ring.set((int) (slot % ring.length()), kept);
+    exporter.export(kept);
+  }
+
+  public long thresholdNanos() {
+    return threshold.thresholdNanos();
+  }
+
+  /** Captured traces, newest first. */
+  public List<RequestTrace> slowTraces() {
+    List<RequestTrace> traces = new ArrayList<>(ring.length());
+    long newest = captured.get() - 1;
+    for (long slot = newest; slot >= 0 && slot > newest - ring.length(); slot--) {
+      RequestTrace trace = ring.get((int) (slot % ring.length()));
+      if (trace != null) {
+        traces.add(trace);
+      }
+    }
+    return traces;
+  }
+}
@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.tracing;
+
+/**
+ * Records request stages into the current thread's {@link RequestTrace}, if there is one.
+ *
+ * <pre>
+ * long started = Tracing.start();
+ * try {
+ *   ...
+ * } finally {
+ *   Tracing.stage("bank.submit", started);
+ * }
+ * </pre>
+ */
+public final class Tracing {
+
+  private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+  private Tracing() {
+  }
+
+  public static long start() {
+    return System.nanoTime();
+  }
+
+  public static void stage(String name, long startedNanos) {
+    RequestTrace trace = CURRENT.get();
+    if (trace != null) {
+      trace.recordStage(name, startedNanos, System.nanoTime());
+    }
+  }
+
+  static void begin(RequestTrace trace) {
+    CURRENT.set(trace);
+  }
+
+  static void end() {
+    CURRENT.remove();
+  }
+}
@@ -0,0 +1,43 @@
+package com.checkout.payment.gateway.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Opens a {@link RequestTrace} around every request, so stages recorded with {@link Tracing} on
+ * the request thread land on its timeline, and hands it to the {@link SlowTraceRecorder} when
+ * the response is done. Each request thread reuses one trace for all its requests; the recorder
+ * copies the ones it keeps.
+ */
+@Component
+@ConditionalOnProperty(value = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingFilter extends OncePerRequestFilter {
+
+  private final SlowTraceRecorder recorder;
+  private final ThreadLocal<RequestTrace> traces = ThreadLocal.withInitial(RequestTrace::new);
+
+  public TracingFilter(SlowTraceRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    RequestTrace trace = traces.get();
+    trace.begin(request.getMethod(), request.getRequestURI());
+    Tracing.begin(trace);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      Tracing.end();
+      trace.finish(response.getStatus());
+      recorder.complete(trace);
+    }
+  }
+}
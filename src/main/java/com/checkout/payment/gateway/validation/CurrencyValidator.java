@@ -0,0 +1,14 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.currency.IsoCurrency;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CurrencyValidator implements ConstraintValidator<ValidCurrency, String> {
+
+  @Override
+  public boolean isValid(String currency, ConstraintValidatorContext context) {
+    if (currency == null) return true; // handled by @NotBlank
+    return IsoCurrency.fromCode(currency) != null;
+  }
+}
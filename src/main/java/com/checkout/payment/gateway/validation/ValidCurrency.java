@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = CurrencyValidator.class)
+public @interface ValidCurrency {
+  String message() default "Currency must be a supported ISO 4217 code";
+  Class<?>[] groups() default {};
+  Class<? extends Payload>[] payload() default {};
+}
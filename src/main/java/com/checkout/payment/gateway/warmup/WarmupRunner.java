@@ -0,0 +1,201 @@
+package com.checkout.payment.gateway.warmup;
+
+import com.checkout.payment.gateway.bank.AcquiringBankClient;
+import com.checkout.payment.gateway.bank.BankBatchPolicy;
+import com.checkout.payment.gateway.bank.BankClientTuning;
+import com.checkout.payment.gateway.bank.BankRetryPolicy;
+import com.checkout.payment.gateway.bank.RetryBudget;
+import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
+import com.checkout.payment.gateway.bank.model.BankPaymentResponse;
+import com.checkout.payment.gateway.controller.PaymentGatewayController;
+import com.checkout.payment.gateway.currency.FxRates;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.ratelimit.RateLimitInterceptor;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Year;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Warms Jackson, Hibernate Validator, Spring MVC and the JIT before the gateway reports ready.
+ *
+ * <p>Application runners finish before Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC}, so the readiness probe stays down until this is done.
+ * The full controller, service and bank client path is driven against a loopback bank stub with a
+ * throwaway repository and event log, so no warm-up payment reaches the real bank, the payment
+ * store or downstream consumers.
+ */
+@Component
+@ConditionalOnProperty(value = "warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WarmupRunner.class);
+  private static final byte[] STUB_RESPONSE =
+      "{\"authorized\":true,\"authorization_code\":\"warmup\"}".getBytes(StandardCharsets.UTF_8);
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final RestTemplate restTemplate;
+  private final BankRetryPolicy retryPolicy;
+  private final Environment environment;
+  private final ConfigurableApplicationContext context;
+  private final int iterations;
+  private final boolean exitWhenDone;
+  private final AtomicLong stubAuthorizations = new AtomicLong();
+
+  public WarmupRunner(ObjectMapper objectMapper, Validator validator, RestTemplate restTemplate,
+      BankRetryPolicy retryPolicy, Environment environment, ConfigurableApplicationContext context,
+      @Value("${warmup.iterations:2000}") int iterations,
+      @Value("${warmup.exit-when-done:false}") boolean exitWhenDone) {
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.restTemplate = restTemplate;
+    this.retryPolicy = retryPolicy;
+    this.environment = environment;
+    this.context = context;
+    this.iterations = iterations;
+    this.exitWhenDone = exitWhenDone;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    long start = System.nanoTime();
+    primeSerializersAndValidation();
+    long primed = System.nanoTime();
+    drivePaymentPath();
+    long driven = System.nanoTime();
+    driveHttpStack();
+    long end = System.nanoTime();
+    LOG.info("Warm-up finished in {} ms (serializers {} ms, payment path {} ms, HTTP stack {} ms)",
+        Duration.ofNanos(end - start).toMillis(), Duration.ofNanos(primed - start).toMillis(),
+        Duration.ofNanos(driven - primed).toMillis(), Duration.ofNanos(end - driven).toMillis());
+
+    if (exitWhenDone) {
+      // Used for CDS training runs: the JVM dumps its class archive on exit
+      System.exit(SpringApplication.exit(context, () -> 0));
+    }
+  }
+
+  /** Authorizations answered by the loopback bank stub, across all warm-up runs. */
+  long stubAuthorizations() {
+    return stubAuthorizations.get();
+  }
+
+  private void primeSerializersAndValidation() throws IOException {
+    PostPaymentRequest request = sampleRequest();
+    byte[] requestJson = objectMapper.writeValueAsBytes(request);
+    objectMapper.readerFor(PostPaymentRequest.class).readValue(requestJson);
+    objectMapper.writerFor(PostPaymentResponse.class).writeValueAsBytes(new PostPaymentResponse());
+    objectMapper.writerFor(ErrorResponse.class)
+        .writeValueAsBytes(new ErrorResponse("WARMUP", "warmup"));
+    objectMapper.writerFor(BankPaymentRequest.class).writeValueAsBytes(new BankPaymentRequest());
+    objectMapper.readerFor(BankPaymentResponse.class).readValue(STUB_RESPONSE);
+
+    validator.getConstraintsForClass(PostPaymentRequest.class);
+    validator.validate(request);
+    validator.validate(new PostPaymentRequest());
+  }
+
+  private void drivePaymentPath() throws IOException {
+    HttpServer bankStub = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    bankStub.createContext("/payments", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      stubAuthorizations.incrementAndGet();
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, STUB_RESPONSE.length);
+      exchange.getResponseBody().write(STUB_RESPONSE);
+      exchange.close();
+    });
+    bankStub.start();
+    try {
+      String stubUrl = "http://" + bankStub.getAddress().getHostString() + ":"
+          + bankStub.getAddress().getPort();
+      SimpleMeterRegistry meters = new SimpleMeterRegistry();
+      // Only the URL and call slots come from here; timeouts stay those of restTemplate's factory
+      BankClientTuning stubTuning = new BankClientTuning(stubUrl, 1000, 1000, 64);
+      AcquiringBankClient stubBankClient = new AcquiringBankClient(restTemplate, stubTuning,
+          retryPolicy, new RetryBudget(0.1, 10), BankBatchPolicy.disabled(), meters);
+      PaymentEventLog disabledEventLog = new PaymentEventLog(false, "", 1, 1, false, meters);
+      PaymentGatewayController controller = new PaymentGatewayController(
+          new PaymentGatewayService(new PaymentsRepository(), stubBankClient, disabledEventLog,
+              DuplicatePaymentGuard.disabled(meters), FxRates.disabled()));
+      for (int i = 0; i < iterations; i++) {
+        PostPaymentRequest request = sampleRequest();
+        validator.validate(request);
+        PostPaymentResponse response = controller.createPayment(
+            request, null, Deadline.after(Duration.ofSeconds(5))).getBody();
+        objectMapper.writeValueAsBytes(response);
+      }
+    } finally {
+      bankStub.stop(0);
+    }
+  }
+
+  // Only requests that never reach the bank: rejected validation and unknown payment lookups
+  private void driveHttpStack() throws IOException, InterruptedException {
+    String port = environment.getProperty("local.server.port");
+    if (port == null) {
+      return;
+    }
+    HttpClient client = HttpClient.newHttpClient();
+    String invalidPayment = "{\"card_number\":\"1\",\"expiry_month\":13,\"expiry_year\":1999,"
+        + "\"currency\":\"XXX\",\"amount\":-1,\"cvv\":\"x\"}";
+    for (int i = 0; i < iterations; i++) {
+      // Spread over several keys so the merchant rate limit does not cut the warm-up short
+      String apiKey = "warmup-" + (i % 100);
+      client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/payments"))
+              .header("Content-Type", "application/json")
+              .header(RateLimitInterceptor.API_KEY_HEADER, apiKey)
+              .POST(HttpRequest.BodyPublishers.ofString(invalidPayment))
+              .build(),
+          HttpResponse.BodyHandlers.discarding());
+      client.send(HttpRequest.newBuilder(
+                  URI.create("http://localhost:" + port + "/payments/" + UUID.randomUUID()))
+              .header(RateLimitInterceptor.API_KEY_HEADER, apiKey)
+              .build(),
+          HttpResponse.BodyHandlers.discarding());
+    }
+  }
+
+  private static PostPaymentRequest sampleRequest() {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(Year.now().getValue() + 1);
+    request.setCurrency("GBP");
+    request.setAmount(100L);
+    request.setCvv("123");
+    return request;
+  }
+}
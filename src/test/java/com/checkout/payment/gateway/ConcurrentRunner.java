@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/** Runs the same task on several threads released at the same instant, for race tests. */
+public final class ConcurrentRunner {
+
+  public interface Task<T> {
+    T run(int thread) throws Exception;
+  }
+
+  private ConcurrentRunner() {
+  }
+
+  /**
+   * Starts {@code threads} copies of {@code task} together and returns their results in thread
+   * order. The first failure is rethrown, wrapped in an {@code ExecutionException}.
+   */
+  public static <T> List<T> run(int threads, Task<T> task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<T>> futures = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        int thread = i;
+        Callable<T> call = () -> {
+          start.await();
+          return task.run(thread);
+        };
+        futures.add(executor.submit(call));
+      }
+      start.countDown();
+      List<T> results = new ArrayList<>(threads);
+      for (Future<T> future : futures) {
+        results.add(future.get(60, TimeUnit.SECONDS));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
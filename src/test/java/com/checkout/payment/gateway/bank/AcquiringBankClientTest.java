@@ -0,0 +1,89 @@
+package com.checkout.payment.gateway.bank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
+import com.checkout.payment.gateway.bank.model.BankPaymentResponse;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.exception.AcquiringBankUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+class AcquiringBankClientTest {
+
+  private static final String BATCH_URL = "http://bank.test/payments/batch";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RestTemplate restTemplate = new RestTemplate();
+  private final MockRestServiceServer server = MockRestServiceServer.createServer(restTemplate);
+  // One payment per batch, so each bank call below belongs to a single caller
+  private final AcquiringBankClient client = new AcquiringBankClient(restTemplate,
+      new BankClientTuning("http://bank.test", 1_000, 1_000, 4), new BankRetryPolicy(3, 1, 1),
+      new RetryBudget(0.1, 10), new BankBatchPolicy(true, 1, 0, 1), meterRegistry);
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    client.close();
+  }
+
+  @Test
+  void batchedPaymentAnswered503IsRetriedOnItsOwn() {
+    server.expect(ExpectedCount.once(), requestTo(BATCH_URL))
+        .andExpect(method(HttpMethod.POST))
+        .andRespond(withSuccess("{\"results\":[{\"status_code\":503}]}",
+            MediaType.APPLICATION_JSON));
+    server.expect(ExpectedCount.once(), requestTo(BATCH_URL))
+        .andRespond(withSuccess(
+            "{\"results\":[{\"authorized\":true,\"authorization_code\":\"abc\"}]}",
+            MediaType.APPLICATION_JSON));
+
+    BankPaymentResponse response = client.submitPayment(request(), deadline());
+
+    assertThat(response.isAuthorized()).isTrue();
+    assertThat(response.getAuthorizationCode()).isEqualTo("abc");
+    server.verify();
+    // One payment that took one retry; each batch call itself succeeded first time
+    assertThat(retries("bank.payment.retries", "success").count()).isEqualTo(1);
+    assertThat(retries("bank.payment.retries", "success").totalAmount()).isEqualTo(1);
+    assertThat(retries("bank.batch.retries", "success").count()).isEqualTo(2);
+    assertThat(retries("bank.batch.retries", "success").totalAmount()).isZero();
+  }
+
+  @Test
+  void batchedPaymentStillUnavailableAfterLastAttemptFails() {
+    server.expect(ExpectedCount.times(3), requestTo(BATCH_URL))
+        .andRespond(withSuccess("{\"results\":[{\"status_code\":503}]}",
+            MediaType.APPLICATION_JSON));
+
+    assertThatThrownBy(() -> client.submitPayment(request(), deadline()))
+        .isInstanceOf(AcquiringBankUnavailableException.class);
+    server.verify();
+    assertThat(retries("bank.payment.retries", "attempts_exhausted").count()).isEqualTo(1);
+    assertThat(retries("bank.payment.retries", "attempts_exhausted").totalAmount())
+        .isEqualTo(2);
+  }
+
+  private DistributionSummary retries(String name, String outcome) {
+    return meterRegistry.get(name).tag("outcome", outcome).summary();
+  }
+
+  private static BankPaymentRequest request() {
+    return new BankPaymentRequest("2222405343248870", "04/2030", "GBP", 100, "123");
+  }
+
+  private static Deadline deadline() {
+    return Deadline.after(Duration.ofSeconds(5));
+  }
+}
@@ -0,0 +1,105 @@
+package com.checkout.payment.gateway.bank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.exception.InvalidSettingsException;
+import com.checkout.payment.gateway.model.BankClientSettingsRequest;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BankClientTuningTest {
+
+  private final BankClientTuning tuning =
+      new BankClientTuning("http://localhost:8080", 10_000, 10_000, 2, "localhost, Bank-B");
+
+  @Test
+  void updateChangesOnlyGivenFields() {
+    BankClientSettingsRequest request = new BankClientSettingsRequest();
+    request.setBaseUrl("http://bank-b:8080");
+    request.setReadTimeoutMs(2_000);
+
+    BankClientSettings updated = tuning.update(request);
+
+    assertThat(updated.getBaseUrl()).isEqualTo("http://bank-b:8080");
+    assertThat(updated.getReadTimeoutMs()).isEqualTo(2_000);
+    assertThat(updated.getConnectTimeoutMs()).isEqualTo(10_000);
+    assertThat(tuning.current()).isSameAs(updated);
+  }
+
+  @Test
+  void invalidUpdateChangesNothing() {
+    BankClientSettings before = tuning.current();
+    BankClientSettingsRequest request = new BankClientSettingsRequest();
+    request.setBaseUrl("bank-b");
+    request.setConnectTimeoutMs(5_000);
+    request.setMaxConcurrentCalls(0);
+
+    assertThatThrownBy(() -> tuning.update(request))
+        .isInstanceOfSatisfying(InvalidSettingsException.class, ex ->
+            assertThat(ex.getErrors()).containsExactly(
+                "base_url: must be an absolute http(s) URL",
+                "max_concurrent_calls: must be positive"));
+    assertThat(tuning.current()).isSameAs(before);
+  }
+
+  @Test
+  void baseUrlOutsideAllowedHostsIsRejected() {
+    BankClientSettings before = tuning.current();
+    BankClientSettingsRequest request = new BankClientSettingsRequest();
+    request.setBaseUrl("https://collector.example:443");
+
+    assertThatThrownBy(() -> tuning.update(request))
+        .isInstanceOfSatisfying(InvalidSettingsException.class, ex ->
+            assertThat(ex.getErrors()).containsExactly(
+                "base_url: host collector.example is not in acquiring-bank.allowed-hosts"));
+    assertThat(tuning.current()).isSameAs(before);
+  }
+
+  @Test
+  void withoutAllowedHostsOnlyTheConfiguredHostIsAllowed() {
+    BankClientTuning defaults = new BankClientTuning("http://localhost:8080", 10_000, 10_000, 2);
+    BankClientSettingsRequest request = new BankClientSettingsRequest();
+    request.setBaseUrl("http://localhost:9090");
+    assertThat(defaults.update(request).getBaseUrl()).isEqualTo("http://localhost:9090");
+
+    request.setBaseUrl("http://bank-b:8080");
+    assertThatThrownBy(() -> defaults.update(request))
+        .isInstanceOf(InvalidSettingsException.class);
+  }
+
+  @Test
+  void loweringLimitHoldsNewCallsUntilInFlightOnesFinish() {
+    Deadline deadline = Deadline.after(Duration.ofMillis(50));
+    tuning.acquire(deadline);
+    tuning.acquire(deadline);
+
+    tuning.update(limit(1));
+    tuning.release();
+    assertThatThrownBy(() -> tuning.acquire(Deadline.after(Duration.ofMillis(10))))
+        .isInstanceOf(DeadlineExceededException.class);
+
+    tuning.release();
+    tuning.acquire(deadline);
+    assertThat(tuning.availablePermits()).isZero();
+  }
+
+  @Test
+  void raisingLimitAdmitsMoreCalls() {
+    Deadline deadline = Deadline.after(Duration.ofMillis(50));
+    tuning.acquire(deadline);
+    tuning.acquire(deadline);
+
+    tuning.update(limit(3));
+    tuning.acquire(deadline);
+    assertThat(tuning.availablePermits()).isZero();
+  }
+
+  private static BankClientSettingsRequest limit(int maxConcurrentCalls) {
+    BankClientSettingsRequest request = new BankClientSettingsRequest();
+    request.setMaxConcurrentCalls(maxConcurrentCalls);
+    return request;
+  }
+}
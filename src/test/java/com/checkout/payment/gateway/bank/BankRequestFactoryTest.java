@@ -0,0 +1,57 @@
+package com.checkout.payment.gateway.bank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import org.junit.jupiter.api.Test;
+
+class BankRequestFactoryTest {
+
+  private final BankRequestFactory factory = new BankRequestFactory(
+      () -> new BankClientSettings("http://localhost:8080", 2_000, 8_000, 16));
+
+  @Test
+  void configuredTimeoutsApplyOutsideACall() throws Exception {
+    HttpURLConnection connection = prepare();
+
+    assertThat(connection.getConnectTimeout()).isEqualTo(2_000);
+    assertThat(connection.getReadTimeout()).isEqualTo(8_000);
+  }
+
+  @Test
+  void ampleBudgetKeepsConfiguredTimeouts() throws Exception {
+    HttpURLConnection connection = BankRequestFactory.withCallTimeout(30_000, this::prepare);
+
+    assertThat(connection.getConnectTimeout()).isEqualTo(2_000);
+    assertThat(connection.getReadTimeout()).isEqualTo(8_000);
+  }
+
+  @Test
+  void tightBudgetIsSplitSoConnectAndReadFitTogether() throws Exception {
+    HttpURLConnection connection = BankRequestFactory.withCallTimeout(5_000, this::prepare);
+
+    assertThat(connection.getConnectTimeout()).isEqualTo(1_000);
+    assertThat(connection.getReadTimeout()).isEqualTo(4_000);
+  }
+
+  @Test
+  void timeoutsNeverNarrowToZero() throws Exception {
+    HttpURLConnection connection = BankRequestFactory.withCallTimeout(1, this::prepare);
+
+    assertThat(connection.getConnectTimeout()).isEqualTo(1);
+    assertThat(connection.getReadTimeout()).isEqualTo(1);
+  }
+
+  // Opening an HttpURLConnection does not connect, so no server is needed
+  private HttpURLConnection prepare() {
+    try {
+      HttpURLConnection connection =
+          (HttpURLConnection) new URL("http://localhost:8080/payments").openConnection();
+      factory.prepareConnection(connection, "POST");
+      return connection;
+    } catch (Exception ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.checkout.payment.gateway.bank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.bank.model.BankBatchPaymentResult;
+import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.exception.AcquiringBankUnavailableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PaymentBatcherTest {
+
+  private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+  private final ExecutorService callers = Executors.newFixedThreadPool(8);
+  private PaymentBatcher batcher;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    callers.shutdownNow();
+    if (batcher != null) {
+      batcher.close();
+    }
+  }
+
+  @Test
+  void concurrentSubmissionsShareOneBatchAndGetTheirOwnResult() throws Exception {
+    batcher = new PaymentBatcher(new BankBatchPolicy(true, 8, 200_000, 2), (payments, deadline) -> {
+      batchSizes.add(payments.size());
+      List<BankBatchPaymentResult> results = new ArrayList<>();
+      for (BankPaymentRequest payment : payments) {
+        BankBatchPaymentResult response = new BankBatchPaymentResult();
+        response.setAuthorized(true);
+        response.setAuthorizationCode(payment.getCardNumber());
+        results.add(response);
+      }
+      return results;
+    });
+
+    List<Future<BankBatchPaymentResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      BankPaymentRequest request =
+          new BankPaymentRequest("card-" + i, "04/2030", "GBP", 100, "123");
+      futures.add(callers.submit(() -> batcher.submit(request, deadline())));
+    }
+
+    for (int i = 0; i < 8; i++) {
+      assertThat(futures.get(i).get().getAuthorizationCode()).isEqualTo("card-" + i);
+    }
+    assertThat(batchSizes).containsExactly(8);
+  }
+
+  @Test
+  void failedPaymentDoesNotFailTheRestOfItsBatch() throws Exception {
+    batcher = new PaymentBatcher(new BankBatchPolicy(true, 4, 200_000, 1), (payments, deadline) -> {
+      batchSizes.add(payments.size());
+      List<BankBatchPaymentResult> results = new ArrayList<>();
+      for (BankPaymentRequest payment : payments) {
+        BankBatchPaymentResult result = new BankBatchPaymentResult();
+        if (payment.getCardNumber().equals("card-0")) {
+          result.setStatusCode(503);
+        } else {
+          result.setAuthorized(true);
+          result.setAuthorizationCode(payment.getCardNumber());
+        }
+        results.add(result);
+      }
+      return results;
+    });
+
+    List<Future<BankBatchPaymentResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      BankPaymentRequest request =
+          new BankPaymentRequest("card-" + i, "04/2030", "GBP", 100, "123");
+      futures.add(callers.submit(() -> batcher.submit(request, deadline())));
+    }
+
+    BankBatchPaymentResult failed = futures.get(0).get();
+    assertThat(failed.isSuccessful()).isFalse();
+    assertThat(failed.getStatusCode()).isEqualTo(503);
+    for (int i = 1; i < 4; i++) {
+      BankBatchPaymentResult result = futures.get(i).get();
+      assertThat(result.isSuccessful()).isTrue();
+      assertThat(result.getAuthorizationCode()).isEqualTo("card-" + i);
+    }
+    assertThat(batchSizes).containsExactly(4);
+  }
+
+  @Test
+  void transportFailureIsReportedToEveryCallerInTheBatch() throws Exception {
+    batcher = new PaymentBatcher(new BankBatchPolicy(true, 2, 200_000, 1), (payments, deadline) -> {
+      batchSizes.add(payments.size());
+      throw new AcquiringBankUnavailableException("down");
+    });
+
+    List<Future<BankBatchPaymentResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      BankPaymentRequest request =
+          new BankPaymentRequest("card-" + i, "04/2030", "GBP", 100, "123");
+      futures.add(callers.submit(() -> batcher.submit(request, deadline())));
+    }
+
+    for (Future<BankBatchPaymentResult> future : futures) {
+      assertThatThrownBy(future::get)
+          .hasCauseInstanceOf(AcquiringBankUnavailableException.class)
+          .hasRootCauseMessage("down");
+    }
+    assertThat(batchSizes).containsExactly(2);
+  }
+
+  @Test
+  void batchIsSentWithItsLeastPatientCallersDeadline() throws Exception {
+    List<Deadline> sentWith = new CopyOnWriteArrayList<>();
+    batcher = new PaymentBatcher(new BankBatchPolicy(true, 2, 200_000, 1), (payments, deadline) -> {
+      sentWith.add(deadline);
+      List<BankBatchPaymentResult> results = new ArrayList<>();
+      for (int i = 0; i < payments.size(); i++) {
+        results.add(new BankBatchPaymentResult());
+      }
+      return results;
+    });
+    Deadline patient = Deadline.after(Duration.ofSeconds(30));
+    Deadline hurried = Deadline.after(Duration.ofSeconds(2));
+
+    Future<BankBatchPaymentResult> first = callers.submit(() -> batcher.submit(
+        new BankPaymentRequest("card-0", "04/2030", "GBP", 100, "123"), patient));
+    Future<BankBatchPaymentResult> second = callers.submit(() -> batcher.submit(
+        new BankPaymentRequest("card-1", "04/2030", "GBP", 100, "123"), hurried));
+    first.get();
+    second.get();
+
+    assertThat(sentWith).containsExactly(hurried);
+  }
+
+  private static Deadline deadline() {
+    return Deadline.after(Duration.ofSeconds(5));
+  }
+}
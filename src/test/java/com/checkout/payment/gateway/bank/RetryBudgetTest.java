@@ -0,0 +1,42 @@
+package com.checkout.payment.gateway.bank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  @Test
+  void reserveAllowsIsolatedRetriesThenRunsDry() {
+    RetryBudget budget = new RetryBudget(0.1, 2);
+
+    assertThat(budget.tryAcquireRetry()).isTrue();
+    assertThat(budget.tryAcquireRetry()).isTrue();
+    assertThat(budget.tryAcquireRetry()).isFalse();
+  }
+
+  @Test
+  void firstAttemptsEarnRetriesAtConfiguredRatio() {
+    RetryBudget budget = new RetryBudget(0.1, 1);
+    assertThat(budget.tryAcquireRetry()).isTrue();
+
+    for (int i = 0; i < 9; i++) {
+      budget.recordFirstAttempt();
+    }
+    assertThat(budget.tryAcquireRetry()).isFalse();
+
+    budget.recordFirstAttempt();
+    assertThat(budget.tryAcquireRetry()).isTrue();
+  }
+
+  @Test
+  void balanceNeverExceedsReserve() {
+    RetryBudget budget = new RetryBudget(0.5, 1);
+    for (int i = 0; i < 100; i++) {
+      budget.recordFirstAttempt();
+    }
+
+    assertThat(budget.tryAcquireRetry()).isTrue();
+    assertThat(budget.tryAcquireRetry()).isFalse();
+  }
+}
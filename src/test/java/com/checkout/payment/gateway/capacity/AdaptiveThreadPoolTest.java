@@ -0,0 +1,52 @@
+package com.checkout.payment.gateway.capacity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveThreadPoolTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  @Test
+  void shrinkingLowersSpareThreadsToTheTarget() {
+    AdaptiveThreadPool pool = pool();
+    AbstractProtocol<?> protocol = connect(pool, 8, 8);
+
+    pool.adjust();
+
+    assertThat(protocol.getMaxThreads()).isEqualTo(6);
+    assertThat(protocol.getMinSpareThreads()).isEqualTo(6);
+  }
+
+  @Test
+  void growingRestoresConfiguredSpareThreads() {
+    AdaptiveThreadPool pool = pool();
+    AbstractProtocol<?> protocol = connect(pool, 6, 6);
+    for (int i = 0; i < 100; i++) {
+      pool.record(SECOND);
+    }
+
+    pool.adjust();
+
+    assertThat(protocol.getMaxThreads()).isEqualTo(400);
+    assertThat(protocol.getMinSpareThreads()).isEqualTo(20);
+  }
+
+  private static AdaptiveThreadPool pool() {
+    return new AdaptiveThreadPool(5, 400, 0.75, 1.0, 5000, 20, new SimpleMeterRegistry());
+  }
+
+  private static AbstractProtocol<?> connect(AdaptiveThreadPool pool, int maxThreads,
+      int minSpareThreads) {
+    Connector connector = new Connector("HTTP/1.1");
+    AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+    protocol.setMaxThreads(maxThreads);
+    protocol.setMinSpareThreads(minSpareThreads);
+    pool.customize(connector);
+    return protocol;
+  }
+}
@@ -0,0 +1,74 @@
+package com.checkout.payment.gateway.capacity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class LittlesLawSizerTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  @Test
+  void sizesPoolForArrivalRateTimesServiceTime() {
+    LittlesLawSizer sizer = new LittlesLawSizer(5, 100, 0.75, 1.0);
+
+    // 200 req/s holding a thread for 100 ms each keeps 20 threads busy
+    int threads = sizer.resize(1000, 100 * SECOND, 5 * SECOND, 25);
+
+    assertThat(sizer.arrivalsPerSecond()).isEqualTo(200.0);
+    assertThat(sizer.serviceSeconds()).isEqualTo(0.1);
+    assertThat(sizer.concurrency()).isEqualTo(20.0);
+    assertThat(threads).isEqualTo(27);
+  }
+
+  @Test
+  void slowerBankGrowsPoolUpToMaximum() {
+    LittlesLawSizer sizer = new LittlesLawSizer(5, 100, 0.75, 1.0);
+    int threads = sizer.resize(1000, 100 * SECOND, 5 * SECOND, 40);
+
+    threads = sizer.resize(1000, 500 * SECOND, 5 * SECOND, threads);
+
+    assertThat(sizer.concurrency()).isEqualTo(100.0);
+    assertThat(threads).isEqualTo(100);
+  }
+
+  @Test
+  void shrinksInStepsAndIgnoresSmallChanges() {
+    LittlesLawSizer sizer = new LittlesLawSizer(5, 100, 0.75, 1.0);
+
+    assertThat(sizer.resize(10, SECOND, SECOND, 100)).isEqualTo(75);
+    assertThat(sizer.resize(10, SECOND, SECOND, 75)).isEqualTo(57);
+    assertThat(sizer.resize(10, SECOND, SECOND, 6)).isEqualTo(6);
+    assertThat(sizer.resize(0, 0, SECOND, 20)).isEqualTo(15);
+  }
+
+  @Test
+  void saturatedPoolGrowsBeyondMeasuredDemand() {
+    LittlesLawSizer sizer = new LittlesLawSizer(5, 100, 0.75, 1.0);
+
+    // Every thread busy the whole interval: the real arrival rate is unknown, so grow by half
+    int threads = sizer.resize(50, 10 * SECOND, SECOND, 10);
+
+    assertThat(threads).isEqualTo(15);
+  }
+
+  @Test
+  void smoothsAcrossIntervals() {
+    LittlesLawSizer sizer = new LittlesLawSizer(1, 1000, 1.0, 0.5);
+
+    sizer.resize(100, 10 * SECOND, SECOND, 100);
+    sizer.resize(300, 30 * SECOND, SECOND, 100);
+
+    assertThat(sizer.arrivalsPerSecond()).isEqualTo(200.0);
+    assertThat(sizer.serviceSeconds()).isEqualTo(0.1);
+  }
+
+  @Test
+  void rejectsInvalidBounds() {
+    assertThatThrownBy(() -> new LittlesLawSizer(10, 5, 0.75, 0.5))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new LittlesLawSizer(1, 5, 1.5, 0.5))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
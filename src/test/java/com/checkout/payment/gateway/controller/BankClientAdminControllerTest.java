@@ -0,0 +1,83 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.checkout.payment.gateway.admin.AdminAccessInterceptor;
+import com.checkout.payment.gateway.bank.BankClientSettings;
+import com.checkout.payment.gateway.bank.BankClientTuning;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties = {
+    "admin.enabled=true",
+    "admin.token=test-admin-token",
+    "acquiring-bank.base-url=http://bank.test",
+    "acquiring-bank.allowed-hosts=bank.test,bank-b.test"
+})
+@AutoConfigureMockMvc
+class BankClientAdminControllerTest {
+
+  private static final String TOKEN = "test-admin-token";
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private BankClientTuning bankClientTuning;
+
+  @Test
+  void whenAuthorisedPatchIsValid_thenSettingsChange() throws Exception {
+    mvc.perform(update("{\"base_url\":\"http://bank-b.test:8080\",\"read_timeout_ms\":3000}")
+            .header(AdminAccessInterceptor.ADMIN_TOKEN_HEADER, TOKEN))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.base_url").value("http://bank-b.test:8080"))
+        .andExpect(jsonPath("$.read_timeout_ms").value(3000));
+
+    assertThat(bankClientTuning.current().getBaseUrl()).isEqualTo("http://bank-b.test:8080");
+    mvc.perform(get("/admin/bank-client")
+            .header(AdminAccessInterceptor.ADMIN_TOKEN_HEADER, TOKEN))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.read_timeout_ms").value(3000));
+  }
+
+  @Test
+  void whenPatchIsInvalid_then400AndNothingChanges() throws Exception {
+    BankClientSettings before = bankClientTuning.current();
+
+    mvc.perform(update("{\"base_url\":\"http://collector.example\",\"max_concurrent_calls\":0}")
+            .header(AdminAccessInterceptor.ADMIN_TOKEN_HEADER, TOKEN))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value("INVALID_SETTINGS"))
+        .andExpect(jsonPath("$.errors.length()").value(2));
+
+    assertThat(bankClientTuning.current()).isSameAs(before);
+  }
+
+  @Test
+  void whenTokenMissingOrWrong_then401AndNothingChanges() throws Exception {
+    BankClientSettings before = bankClientTuning.current();
+    String body = "{\"base_url\":\"http://bank-b.test:9090\"}";
+
+    mvc.perform(update(body))
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.code").value("UNAUTHORIZED"));
+    mvc.perform(update(body).header(AdminAccessInterceptor.ADMIN_TOKEN_HEADER, "guess"))
+        .andExpect(status().isUnauthorized());
+    mvc.perform(get("/admin/bank-client"))
+        .andExpect(status().isUnauthorized());
+
+    assertThat(bankClientTuning.current()).isSameAs(before);
+  }
+
+  private static MockHttpServletRequestBuilder update(String body) {
+    return patch("/admin/bank-client").contentType(MediaType.APPLICATION_JSON).content(body);
+  }
+}
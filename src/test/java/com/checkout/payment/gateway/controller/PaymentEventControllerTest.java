@@ -0,0 +1,124 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.checkout.payment.gateway.admin.AdminAccessInterceptor;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.events.PaymentEvent;
+import com.checkout.payment.gateway.events.PaymentEventCodec;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties = "admin.token=" + PaymentEventControllerTest.TOKEN)
+@AutoConfigureMockMvc
+class PaymentEventControllerTest {
+
+  static final String TOKEN = "test-admin-token";
+
+  @TempDir
+  static Path eventDirectory;
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private PaymentEventLog paymentEventLog;
+
+  @DynamicPropertySource
+  static void eventLogProperties(DynamicPropertyRegistry registry) {
+    registry.add("payment-events.enabled", () -> "true");
+    registry.add("payment-events.directory", eventDirectory::toString);
+  }
+
+  @Test
+  void committedEventsAreStreamedWithMatchingContentLength() throws Exception {
+    long first = paymentEventLog.committedSequence();
+    UUID id = UUID.randomUUID();
+    paymentEventLog.append(new PaymentEvent(PaymentEvent.UNASSIGNED, System.currentTimeMillis(),
+        id, PaymentStatus.AUTHORIZED, "GBP", 100));
+    paymentEventLog.append(new PaymentEvent(PaymentEvent.UNASSIGNED, System.currentTimeMillis(),
+        UUID.randomUUID(), PaymentStatus.DECLINED, "USD", 200));
+    assertThat(paymentEventLog.awaitFlushed(Duration.ofSeconds(5))).isTrue();
+
+    MvcResult started = mvc.perform(events()
+            .param("from", String.valueOf(first))
+            .param("limit", "1"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MvcResult result = mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Length",
+            String.valueOf(PaymentEventCodec.RECORD_SIZE)))
+        .andExpect(header().string(PaymentEventController.NEXT_SEQUENCE_HEADER,
+            String.valueOf(first + 1)))
+        .andReturn();
+
+    byte[] body = result.getResponse().getContentAsByteArray();
+    assertThat(body).hasSize(PaymentEventCodec.RECORD_SIZE);
+    PaymentEvent event = PaymentEventCodec.decode(ByteBuffer.wrap(body));
+    assertThat(event.getSequence()).isEqualTo(first);
+    assertThat(event.getPaymentId()).isEqualTo(id);
+  }
+
+  @Test
+  void rangeBeyondCommittedEventsIsEmptyRatherThanOverflowing() throws Exception {
+    MvcResult started = mvc.perform(events()
+            .param("from", String.valueOf(Long.MAX_VALUE))
+            .param("limit", String.valueOf(PaymentEventController.MAX_LIMIT)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Length", "0"))
+        .andExpect(header().string(PaymentEventController.NEXT_SEQUENCE_HEADER,
+            String.valueOf(paymentEventLog.committedSequence())));
+  }
+
+  @Test
+  void streamWithoutTheAdminTokenIsUnauthorized() throws Exception {
+    mvc.perform(get("/payment-events"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.code").value("UNAUTHORIZED"));
+    mvc.perform(get("/payment-events").header(AdminAccessInterceptor.ADMIN_TOKEN_HEADER, "wrong"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void negativeFromIsRejected() throws Exception {
+    mvc.perform(events().param("from", "-1"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value("INVALID_RANGE"));
+  }
+
+  @Test
+  void limitOutsideBoundsIsRejected() throws Exception {
+    mvc.perform(events().param("limit", "0"))
+        .andExpect(status().isBadRequest());
+    mvc.perform(events()
+            .param("limit", String.valueOf(PaymentEventController.MAX_LIMIT + 1)))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static MockHttpServletRequestBuilder events() {
+    return get("/payment-events").header(AdminAccessInterceptor.ADMIN_TOKEN_HEADER, TOKEN);
+  }
+}
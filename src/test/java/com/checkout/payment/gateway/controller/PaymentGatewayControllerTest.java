@@ -1,11 +1,17 @@
 package com.checkout.payment.gateway.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
-import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.PaymentRecord;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,18 +29,12 @@ class PaymentGatewayControllerTest {
   private MockMvc mvc;
   @Autowired
   PaymentsRepository paymentsRepository;
+  @Autowired
+  ObjectMapper objectMapper;
 
   @Test
   void whenPaymentWithIdExistThenCorrectPaymentIsReturned() throws Exception {
-    PostPaymentResponse payment = new PostPaymentResponse();
-    payment.setId(UUID.randomUUID());
-    payment.setAmount(10);
-    payment.setCurrency("USD");
-    payment.setStatus(PaymentStatus.AUTHORIZED);
-    payment.setExpiryMonth(12);
-    payment.setExpiryYear(2024);
-    payment.setCardNumberLastFour("4321");
-
+    PaymentRecord payment = payment();
     paymentsRepository.add(payment);
 
     mvc.perform(MockMvcRequestBuilders.get("/payments/" + payment.getId()))
@@ -47,6 +47,39 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.amount").value(payment.getAmount()));
   }
 
+  @Test
+  void whenJsonIsAcceptedThenPreRenderedBodyMatchesJackson() throws Exception {
+    PaymentRecord payment = payment();
+    paymentsRepository.add(payment);
+
+    byte[] body = mvc.perform(MockMvcRequestBuilders.get("/payments/" + payment.getId())
+            .accept("application/json"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/json"))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    assertThat(body).isEqualTo(objectMapper.writeValueAsBytes(payment.toResponse()));
+  }
+
+  @Test
+  void whenCborIsAcceptedThenPaymentIsSerializedAsCbor() throws Exception {
+    PaymentRecord payment = payment();
+    paymentsRepository.add(payment);
+
+    byte[] body = mvc.perform(MockMvcRequestBuilders.get("/payments/" + payment.getId())
+            .accept("application/cbor"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "application/cbor"))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    JsonNode response = new CBORMapper().readTree(body);
+    assertThat(response.get("id").asText()).isEqualTo(payment.getId().toString());
+    assertThat(response.get("status").asText()).isEqualTo("Authorized");
+    assertThat(response.get("card_number_last_four").asText()).isEqualTo("4321");
+    assertThat(response.get("expiry_month").asInt()).isEqualTo(12);
+    assertThat(response.get("amount").asLong()).isEqualTo(10);
+  }
+
   @Test
   void whenPaymentWithIdDoesNotExistThen404IsReturned() throws Exception {
     mvc.perform(MockMvcRequestBuilders.get("/payments/" + UUID.randomUUID()))
@@ -54,4 +87,9 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.code").value("PAYMENT_NOT_FOUND"))
         .andExpect(jsonPath("$.message").value("Payment not found"));
   }
+
+  private static PaymentRecord payment() {
+    return new PaymentRecord(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "4321", 12, 2024, "USD",
+        10);
+  }
 }
@@ -0,0 +1,86 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(properties = {
+    "acquiring-bank.base-url=http://bank.test",
+    "payments.dedup.enabled=true",
+    "payments.dedup.mode=REJECT"
+})
+@AutoConfigureMockMvc
+class PaymentGatewayDuplicateTest {
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private RestTemplate restTemplate;
+
+  @Test
+  void whenIdenticalPaymentIsInFlight_thenDuplicateRejectedWith409() throws Exception {
+    CountDownLatch bankCalled = new CountDownLatch(1);
+    CountDownLatch bankMayAnswer = new CountDownLatch(1);
+    MockRestServiceServer server = MockRestServiceServer.createServer(restTemplate);
+    server.expect(requestTo("http://bank.test/payments"))
+        .andRespond(request -> {
+          bankCalled.countDown();
+          try {
+            bankMayAnswer.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          return withSuccess("{\"authorized\":true,\"authorization_code\":\"abc\"}",
+              MediaType.APPLICATION_JSON).createResponse(request);
+        });
+
+    CompletableFuture<Integer> original = CompletableFuture.supplyAsync(() -> {
+      try {
+        return mvc.perform(payment()).andReturn().getResponse().getStatus();
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    try {
+      assertThat(bankCalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+      mvc.perform(payment())
+          .andExpect(status().isConflict())
+          .andExpect(jsonPath("$.code").value("DUPLICATE_PAYMENT"));
+    } finally {
+      bankMayAnswer.countDown();
+    }
+
+    assertThat(original.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+    server.verify();
+  }
+
+  private static MockHttpServletRequestBuilder payment() {
+    return post("/payments")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{" +
+            "\"card_number\":\"2222405343248877\"," +
+            "\"expiry_month\":4," +
+            "\"expiry_year\":2030," +
+            "\"currency\":\"GBP\"," +
+            "\"amount\":100," +
+            "\"cvv\":\"123\"" +
+            "}");
+  }
+}
@@ -1,6 +1,10 @@
 package com.checkout.payment.gateway.controller;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,21 +13,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.client.RestTemplate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(properties = {
-    "acquiring-bank.base-url=http://bank.test" // avoid hitting real docker simulator during tests
+    "acquiring-bank.base-url=http://bank.test", // avoid hitting real docker simulator during tests
+    "acquiring-bank.retry.initial-backoff-ms=1"
 })
 @AutoConfigureMockMvc
 class PaymentGatewayProcessingTest {
@@ -96,7 +104,7 @@ class PaymentGatewayProcessingTest {
 
   @Test
   void whenBankUnavailable_then503Returned() throws Exception {
-    server.expect(requestTo("http://bank.test/payments"))
+    server.expect(ExpectedCount.times(3), requestTo("http://bank.test/payments"))
         .andExpect(method(HttpMethod.POST))
         .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
 
@@ -116,5 +124,86 @@ class PaymentGatewayProcessingTest {
 
     server.verify();
   }
-}
 
+  @Test
+  void whenBankBrieflyUnavailable_thenRetriedAndAuthorized() throws Exception {
+    server.expect(requestTo("http://bank.test/payments"))
+        .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+    server.expect(requestTo("http://bank.test/payments"))
+        .andRespond(withSuccess(
+            "{\"authorized\":true,\"authorization_code\":\"abc\"}",
+            MediaType.APPLICATION_JSON));
+
+    mvc.perform(post("/payments")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{" +
+                "\"card_number\":\"2222405343248877\"," +
+                "\"expiry_month\":4," +
+                "\"expiry_year\":2030," +
+                "\"currency\":\"GBP\"," +
+                "\"amount\":100," +
+                "\"cvv\":\"123\"" +
+                "}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("Authorized"));
+
+    server.verify();
+  }
+
+  @Test
+  void whenClientBudgetAlreadySpent_thenGatewayTimeoutWithoutCallingBank() throws Exception {
+    mvc.perform(post("/payments")
+            .header("X-Request-Timeout", "0")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{" +
+                "\"card_number\":\"2222405343248877\"," +
+                "\"expiry_month\":4," +
+                "\"expiry_year\":2030," +
+                "\"currency\":\"GBP\"," +
+                "\"amount\":100," +
+                "\"cvv\":\"123\"" +
+                "}"))
+        .andExpect(status().isGatewayTimeout())
+        .andExpect(jsonPath("$.code").value("DEADLINE_EXCEEDED"));
+
+    server.verify();
+  }
+
+  @Test
+  void whenPaymentSentAsCbor_thenBankStillGetsJsonAndResponseIsCbor() throws Exception {
+    server.expect(requestTo("http://bank.test/payments"))
+        .andExpect(content().json("{" +
+            "\"card_number\":\"2222405343248877\"," +
+            "\"expiry_date\":\"04/2030\"," +
+            "\"currency\":\"GBP\"," +
+            "\"amount\":100," +
+            "\"cvv\":\"123\"" +
+            "}"))
+        .andRespond(withSuccess(
+            "{\"authorized\":true,\"authorization_code\":\"abc\"}",
+            MediaType.APPLICATION_JSON));
+
+    Map<String, Object> payment = new LinkedHashMap<>();
+    payment.put("card_number", "2222405343248877");
+    payment.put("expiry_month", 4);
+    payment.put("expiry_year", 2030);
+    payment.put("currency", "GBP");
+    payment.put("amount", 100);
+    payment.put("cvv", "123");
+    CBORMapper cbor = new CBORMapper();
+
+    byte[] body = mvc.perform(post("/payments")
+            .contentType("application/cbor")
+            .accept("application/cbor")
+            .content(cbor.writeValueAsBytes(payment)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "application/cbor"))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    JsonNode response = cbor.readTree(body);
+    assertThat(response.get("status").asText()).isEqualTo("Authorized");
+    assertThat(response.get("card_number_last_four").asText()).isEqualTo("8877");
+    assertThat(response.get("amount").asInt()).isEqualTo(100);
+    server.verify();
+  }
+}
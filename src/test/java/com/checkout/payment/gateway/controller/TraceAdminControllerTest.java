@@ -0,0 +1,39 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.checkout.payment.gateway.admin.AdminAccessInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "admin.enabled=true",
+    "admin.token=test-admin-token"
+})
+@AutoConfigureMockMvc
+class TraceAdminControllerTest {
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Test
+  void whenTokenPresent_thenTracesShown() throws Exception {
+    mvc.perform(get("/admin/traces")
+            .header(AdminAccessInterceptor.ADMIN_TOKEN_HEADER, "test-admin-token"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.threshold_ms").isNumber())
+        .andExpect(jsonPath("$.traces").isArray());
+  }
+
+  @Test
+  void whenTokenMissing_then401() throws Exception {
+    mvc.perform(get("/admin/traces"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.code").value("UNAUTHORIZED"));
+  }
+}
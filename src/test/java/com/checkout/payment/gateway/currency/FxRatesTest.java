@@ -0,0 +1,91 @@
+package com.checkout.payment.gateway.currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FxRatesTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void codesResolveByIndexWithExponents() {
+    assertThat(IsoCurrency.fromCode("GBP")).isEqualTo(IsoCurrency.GBP);
+    assertThat(IsoCurrency.fromCode("JPY").getExponent()).isZero();
+    assertThat(IsoCurrency.fromCode("KWD").getMinorUnitsPerMajor()).isEqualTo(1000);
+    assertThat(IsoCurrency.fromCode("gbp")).isNull();
+    assertThat(IsoCurrency.fromCode("AAA")).isNull();
+    assertThat(IsoCurrency.fromCode("EURO")).isNull();
+    assertThat(IsoCurrency.fromCode("")).isNull();
+  }
+
+  @Test
+  void conversionAccountsForMinorUnitExponents() {
+    FxRateTable table = new FxRateTable(Map.of(
+        IsoCurrency.GBP, BigDecimal.ONE,
+        IsoCurrency.JPY, new BigDecimal("190.5"),
+        IsoCurrency.KWD, new BigDecimal("0.39")));
+
+    // 10.00 GBP = 1905 JPY = 3.900 KWD
+    assertThat(table.convert(1000, IsoCurrency.GBP, IsoCurrency.JPY)).isEqualTo(1905);
+    assertThat(table.convert(1000, IsoCurrency.GBP, IsoCurrency.KWD)).isEqualTo(3900);
+    assertThat(table.convert(1905, IsoCurrency.JPY, IsoCurrency.GBP)).isEqualTo(1000);
+    assertThat(table.convert(123, IsoCurrency.USD, IsoCurrency.USD)).isEqualTo(123);
+    assertThat(table.supports(IsoCurrency.USD, IsoCurrency.GBP)).isFalse();
+    assertThatThrownBy(() -> table.convert(1, IsoCurrency.USD, IsoCurrency.GBP))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void amountsTooLargeToConvertAreRefusedUpFront() {
+    FxRateTable table = new FxRateTable(Map.of(
+        IsoCurrency.GBP, BigDecimal.ONE,
+        IsoCurrency.JPY, new BigDecimal("190.5")));
+
+    long max = table.maxConvertibleAmount(IsoCurrency.GBP, IsoCurrency.JPY);
+    assertThat(table.convert(max, IsoCurrency.GBP, IsoCurrency.JPY)).isPositive();
+    assertThatThrownBy(() -> table.convert(max + 1, IsoCurrency.GBP, IsoCurrency.JPY))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> table.convert(Long.MAX_VALUE, IsoCurrency.GBP, IsoCurrency.JPY))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(table.maxConvertibleAmount(IsoCurrency.JPY, IsoCurrency.GBP))
+        .isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void refreshSwapsInNewRatesAndKeepsOldOnesIfFileIsBad() throws IOException {
+    Path file = directory.resolve("rates.properties");
+    Files.writeString(file, "GBP=1\nUSD=1.25\n");
+    FxRates rates = new FxRates(true, file.toString(), "GBP", 60_000);
+    rates.start();
+    FxRateTable first = rates.current();
+    assertThat(first.convert(125, IsoCurrency.USD, IsoCurrency.GBP)).isEqualTo(100);
+
+    Files.writeString(file, "GBP=1\nUSD=2\n");
+    touch(file, 1);
+    rates.refresh();
+    assertThat(rates.current().convert(200, IsoCurrency.USD, IsoCurrency.GBP)).isEqualTo(100);
+    assertThat(first.convert(125, IsoCurrency.USD, IsoCurrency.GBP)).isEqualTo(100);
+
+    Files.writeString(file, "GBP=1\nUSD=-1\n");
+    touch(file, 2);
+    rates.refresh();
+    assertThat(rates.current().convert(200, IsoCurrency.USD, IsoCurrency.GBP)).isEqualTo(100);
+    rates.stop();
+  }
+
+  // Some file systems only keep whole seconds, so set distinct times explicitly
+  private static void touch(Path file, long seconds) throws IOException {
+    Files.setLastModifiedTime(file,
+        FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + seconds * 1000));
+  }
+}
@@ -0,0 +1,117 @@
+package com.checkout.payment.gateway.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard.Claim;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard.Mode;
+import com.checkout.payment.gateway.exception.AcquiringBankUnavailableException;
+import com.checkout.payment.gateway.exception.DuplicatePaymentException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class DuplicatePaymentGuardTest {
+
+  private static final Deadline DEADLINE = Deadline.after(Duration.ofMinutes(1));
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void duplicateJoinsOriginalAndGetsItsResult() {
+    DuplicatePaymentGuard guard = guard(Mode.JOIN);
+    Claim original = guard.claim(request(1050), "merchant-a");
+    Claim duplicate = guard.claim(request(1050), "merchant-a");
+
+    assertThat(original.isOriginal()).isTrue();
+    assertThat(duplicate.isOriginal()).isFalse();
+
+    PostPaymentResponse response = response();
+    original.complete(response);
+    assertThat(duplicate.awaitOriginal(DEADLINE)).isSameAs(response);
+  }
+
+  @Test
+  void duplicateIsRejectedInRejectMode() {
+    DuplicatePaymentGuard guard = guard(Mode.REJECT);
+    guard.claim(request(1050), "merchant-a");
+
+    assertThatThrownBy(() -> guard.claim(request(1050), "merchant-a"))
+        .isInstanceOf(DuplicatePaymentException.class);
+  }
+
+  @Test
+  void differentAmountOrMerchantIsNotADuplicate() {
+    DuplicatePaymentGuard guard = guard(Mode.REJECT);
+    guard.claim(request(1050), "merchant-a");
+
+    assertThat(guard.claim(request(1051), "merchant-a").isOriginal()).isTrue();
+    assertThat(guard.claim(request(1050), "merchant-b").isOriginal()).isTrue();
+    assertThat(guard.claim(request(1050), null).isOriginal()).isTrue();
+  }
+
+  @Test
+  void completedPaymentIsForgottenAfterWindow() {
+    DuplicatePaymentGuard guard = guard(Mode.JOIN);
+    guard.claim(request(1050), "merchant-a").complete(response());
+
+    clock.addAndGet(Duration.ofMillis(1999).toNanos());
+    assertThat(guard.claim(request(1050), "merchant-a").isOriginal()).isFalse();
+
+    clock.addAndGet(Duration.ofMillis(1).toNanos());
+    assertThat(guard.claim(request(1050), "merchant-a").isOriginal()).isTrue();
+  }
+
+  @Test
+  void failedPaymentIsForgottenAtOnceAndFailsDuplicates() {
+    DuplicatePaymentGuard guard = guard(Mode.JOIN);
+    Claim original = guard.claim(request(1050), "merchant-a");
+    Claim duplicate = guard.claim(request(1050), "merchant-a");
+
+    original.fail(new AcquiringBankUnavailableException("down"));
+
+    assertThatThrownBy(() -> duplicate.awaitOriginal(DEADLINE))
+        .isInstanceOf(AcquiringBankUnavailableException.class);
+    assertThat(guard.claim(request(1050), "merchant-a").isOriginal()).isTrue();
+  }
+
+  @Test
+  void fullTableLetsPaymentsThroughUnguarded() {
+    DuplicatePaymentGuard guard = new DuplicatePaymentGuard(true, Mode.REJECT,
+        Duration.ofSeconds(2), 1, 8, "salt", new SimpleMeterRegistry(), clock::get);
+    for (int amount = 1; amount <= 8; amount++) {
+      guard.claim(request(amount), "merchant-a");
+    }
+
+    Claim unguarded = guard.claim(request(9), "merchant-a");
+    assertThat(unguarded.isOriginal()).isTrue();
+    assertThat(guard.claim(request(9), "merchant-a").isOriginal()).isTrue();
+  }
+
+  private DuplicatePaymentGuard guard(Mode mode) {
+    return new DuplicatePaymentGuard(true, mode, Duration.ofSeconds(2), 4, 64, "salt",
+        new SimpleMeterRegistry(), clock::get);
+  }
+
+  private static PostPaymentRequest request(long amount) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(amount);
+    request.setCvv("123");
+    return request;
+  }
+
+  private static PostPaymentResponse response() {
+    PostPaymentResponse response = new PostPaymentResponse();
+    response.setId(UUID.randomUUID());
+    return response;
+  }
+}
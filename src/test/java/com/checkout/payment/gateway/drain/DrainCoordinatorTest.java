@@ -0,0 +1,166 @@
+package com.checkout.payment.gateway.drain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.bank.AcquiringBankClient;
+import com.checkout.payment.gateway.bank.BankBatchPolicy;
+import com.checkout.payment.gateway.bank.BankClientTuning;
+import com.checkout.payment.gateway.bank.BankRequestFactory;
+import com.checkout.payment.gateway.bank.BankRetryPolicy;
+import com.checkout.payment.gateway.bank.RetryBudget;
+import com.checkout.payment.gateway.currency.FxRates;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.exception.ServiceDrainingException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.web.client.RestTemplate;
+
+class DrainCoordinatorTest {
+
+  private static final byte[] AUTHORIZED =
+      "{\"authorized\":true,\"authorization_code\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+  @TempDir
+  Path eventDirectory;
+
+  private final List<Object> publishedEvents = new CopyOnWriteArrayList<>();
+  private final ExecutorService callers = Executors.newCachedThreadPool();
+  private final PaymentsRepository repository = new PaymentsRepository();
+  private volatile long bankDelayMillis;
+  private HttpServer bank;
+  private PaymentEventLog eventLog;
+  private PaymentGatewayService service;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    bank = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    bank.setExecutor(Executors.newCachedThreadPool());
+    bank.createContext("/payments", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      try {
+        Thread.sleep(bankDelayMillis);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, AUTHORIZED.length);
+      exchange.getResponseBody().write(AUTHORIZED);
+      exchange.close();
+    });
+    bank.start();
+
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    BankClientTuning tuning = new BankClientTuning(
+        "http://localhost:" + bank.getAddress().getPort(), 5_000, 5_000, 16);
+    AcquiringBankClient bankClient = new AcquiringBankClient(
+        new RestTemplate(new BankRequestFactory(tuning::current)), tuning,
+        new BankRetryPolicy(1, 1, 1), new RetryBudget(0.1, 10), BankBatchPolicy.disabled(),
+        meters);
+    eventLog = new PaymentEventLog(true, eventDirectory.toString(), 1000, 1024, false, meters);
+    eventLog.start();
+    service = new PaymentGatewayService(repository, bankClient, eventLog,
+        DuplicatePaymentGuard.disabled(meters), FxRates.disabled());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    callers.shutdownNow();
+    bank.stop(0);
+    eventLog.stop();
+  }
+
+  @Test
+  void drainWaitsForInFlightAuthorizationsAndRefusesNewOnes() throws Exception {
+    bankDelayMillis = 300;
+    DrainCoordinator coordinator = coordinator(Duration.ofSeconds(5));
+    List<Future<?>> payments = submitPayments(coordinator, 3);
+
+    coordinator.stop();
+
+    assertThat(coordinator.lastReport().getDrained()).isEqualTo(3);
+    assertThat(coordinator.lastReport().getAbandoned()).isZero();
+    assertThat(coordinator.lastReport().isEventsFlushed()).isTrue();
+    for (Future<?> payment : payments) {
+      payment.get(1, TimeUnit.SECONDS);
+    }
+    assertThat(eventLog.committedSequence()).isEqualTo(3);
+    assertThat(publishedEvents).singleElement()
+        .extracting(event -> ((AvailabilityChangeEvent<?>) event).getState())
+        .isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+    assertThatThrownBy(coordinator::enter).isInstanceOf(ServiceDrainingException.class);
+  }
+
+  @Test
+  void drainGivesUpAtDeadlineAndReportsAbandoned() throws Exception {
+    bankDelayMillis = 2_000;
+    DrainCoordinator coordinator = coordinator(Duration.ofMillis(100));
+    submitPayments(coordinator, 2);
+
+    long started = System.nanoTime();
+    coordinator.stop();
+
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+    assertThat(coordinator.lastReport().getDrained()).isZero();
+    assertThat(coordinator.lastReport().getAbandoned()).isEqualTo(2);
+  }
+
+  private DrainCoordinator coordinator(Duration timeout) {
+    DrainCoordinator coordinator = new DrainCoordinator(timeout, eventLog, publishedEvents::add);
+    coordinator.start();
+    return coordinator;
+  }
+
+  private List<Future<?>> submitPayments(DrainCoordinator coordinator, int count)
+      throws InterruptedException {
+    CountDownLatch admitted = new CountDownLatch(count);
+    List<Future<?>> payments = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < count; i++) {
+      payments.add(callers.submit(() -> {
+        coordinator.enter();
+        admitted.countDown();
+        try {
+          service.processPayment(request(), null, Deadline.after(Duration.ofSeconds(10)));
+        } finally {
+          coordinator.exit();
+        }
+      }));
+    }
+    assertThat(admitted.await(1, TimeUnit.SECONDS)).isTrue();
+    return payments;
+  }
+
+  private static PostPaymentRequest request() {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(100L);
+    request.setCvv("123");
+    return request;
+  }
+}
@@ -0,0 +1,269 @@
+package com.checkout.payment.gateway.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PaymentEventLogTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void eventsAreReadBackInOrderAcrossSegments() throws Exception {
+    PaymentEventLog log = open(4);
+    List<UUID> ids = appendEvents(log, 10);
+
+    List<PaymentEvent> events = read(log, 0, Long.MAX_VALUE);
+    log.stop();
+
+    assertThat(events).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(events.get(i).getSequence()).isEqualTo(i);
+      assertThat(events.get(i).getPaymentId()).isEqualTo(ids.get(i));
+      assertThat(events.get(i).getAmount()).isEqualTo(100L + i);
+      assertThat(events.get(i).getCurrency()).isEqualTo("GBP");
+    }
+    try (Stream<Path> segments = Files.list(directory)) {
+      assertThat(segments.count()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void readerCanResumeFromOffset() throws Exception {
+    PaymentEventLog log = open(4);
+    List<UUID> ids = appendEvents(log, 10);
+
+    List<PaymentEvent> events = read(log, 6, 8);
+    log.stop();
+
+    assertThat(events).extracting(PaymentEvent::getPaymentId)
+        .containsExactly(ids.get(6), ids.get(7));
+  }
+
+  @Test
+  void sequenceContinuesAfterRestart() throws Exception {
+    PaymentEventLog first = open(4);
+    appendEvents(first, 5);
+    first.stop();
+
+    PaymentEventLog second = open(4);
+    assertThat(second.committedSequence()).isEqualTo(5);
+    appendEvents(second, 2);
+
+    List<PaymentEvent> events = read(second, 0, Long.MAX_VALUE);
+    second.stop();
+    assertThat(events).extracting(PaymentEvent::getSequence)
+        .containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+  }
+
+  @Test
+  void failedWriteStopsTheLogAndKeepsCommittedRecordsReadable() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    AtomicBoolean failWrites = new AtomicBoolean();
+    PaymentEventLog log = new PaymentEventLog(true, directory.toString(), 100, 1024, false, meters,
+        (file, options) -> new FailingChannel(FileChannel.open(file, options), failWrites));
+    log.start();
+    List<UUID> ids = appendEvents(log, 3);
+
+    failWrites.set(true);
+    log.append(event(UUID.randomUUID(), 1));
+    log.append(event(UUID.randomUUID(), 2));
+    assertThat(log.awaitFlushed(Duration.ofSeconds(5))).isFalse();
+
+    assertThat(log.isFailed()).isTrue();
+    assertThat(log.committedSequence()).isEqualTo(3);
+    assertThat(read(log, 0, Long.MAX_VALUE)).extracting(PaymentEvent::getPaymentId)
+        .containsExactlyElementsOf(ids);
+    log.append(event(UUID.randomUUID(), 3));
+    assertThat(meters.counter("payment.events.dropped").count()).isEqualTo(3);
+    log.stop();
+
+    // The torn record at the tail is trimmed and the sequence carries on from the committed one
+    PaymentEventLog reopened = open(100);
+    assertThat(reopened.committedSequence()).isEqualTo(3);
+    appendEvents(reopened, 2);
+    List<PaymentEvent> events = read(reopened, 0, Long.MAX_VALUE);
+    reopened.stop();
+    assertThat(events).extracting(PaymentEvent::getSequence).containsExactly(0L, 1L, 2L, 3L, 4L);
+  }
+
+  @Test
+  void eventsAppendedAfterStopAreDroppedAndCounted() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    PaymentEventLog log = new PaymentEventLog(true, directory.toString(), 100, 1024, false,
+        meters);
+    log.start();
+    appendEvents(log, 2);
+    log.stop();
+
+    log.append(event(UUID.randomUUID(), 1));
+
+    assertThat(meters.counter("payment.events.dropped").count()).isEqualTo(1);
+    assertThat(log.committedSequence()).isEqualTo(2);
+  }
+
+  private PaymentEventLog open(long segmentRecords) throws Exception {
+    PaymentEventLog log = new PaymentEventLog(true, directory.toString(), segmentRecords, 1024,
+        false, new SimpleMeterRegistry());
+    log.start();
+    return log;
+  }
+
+  private static List<UUID> appendEvents(PaymentEventLog log, int count)
+      throws InterruptedException {
+    long target = log.committedSequence() + count;
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      log.append(event(id, 100L + i));
+    }
+    long giveUpAt = System.currentTimeMillis() + 5000;
+    while (log.committedSequence() < target && System.currentTimeMillis() < giveUpAt) {
+      Thread.sleep(10);
+    }
+    return ids;
+  }
+
+  private static PaymentEvent event(UUID id, long amount) {
+    return new PaymentEvent(PaymentEvent.UNASSIGNED, System.currentTimeMillis(), id,
+        PaymentStatus.AUTHORIZED, "GBP", amount);
+  }
+
+  private static List<PaymentEvent> read(PaymentEventLog log, long from, long to) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    log.transferTo(from, to, Channels.newChannel(out));
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    List<PaymentEvent> events = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      events.add(PaymentEventCodec.decode(buffer));
+    }
+    return events;
+  }
+
+  /** Once {@code failWrites} is set, writes a few bytes of the buffer and then fails. */
+  private static final class FailingChannel extends FileChannel {
+    private final FileChannel delegate;
+    private final AtomicBoolean failWrites;
+
+    FailingChannel(FileChannel delegate, AtomicBoolean failWrites) {
+      this.delegate = delegate;
+      this.failWrites = failWrites;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      if (failWrites.get()) {
+        ByteBuffer torn = src.slice(src.position(), Math.min(src.remaining(), 20));
+        delegate.write(torn);
+        throw new IOException("No space left on device");
+      }
+      return delegate.write(src);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      return delegate.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+      return delegate.read(dsts, offset, length);
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+      return delegate.read(dst, position);
+    }
+
+    @Override
+    public long position() throws IOException {
+      return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+      delegate.position(newPosition);
+      return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+      return delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+      delegate.truncate(size);
+      return this;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+      delegate.force(metaData);
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target)
+        throws IOException {
+      return delegate.transferTo(position, count, target);
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count)
+        throws IOException {
+      return delegate.transferFrom(src, position, count);
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+      return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+      return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+      return delegate.tryLock(position, size, shared);
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.checkout.payment.gateway.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import com.checkout.payment.gateway.exception.PaymentValidationException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.ValidatedPostPaymentRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+class PostPaymentRequestReaderTest {
+
+  private final PostPaymentRequestReader reader = new PostPaymentRequestReader(new JsonFactory());
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Test
+  void validRequestIsParsedWithoutFurtherValidation() throws Exception {
+    PostPaymentRequest request = read("{\"card_number\":\"2222405343248877\",\"expiry_month\":4,"
+        + "\"expiry_year\":2030,\"currency\":\"GBP\",\"amount\":100,\"cvv\":\"123\","
+        + "\"ignored\":{\"nested\":[1,2]}}");
+
+    assertThat(request).isInstanceOf(ValidatedPostPaymentRequest.class);
+    assertThat(request.getCardNumber()).isEqualTo("2222405343248877");
+    assertThat(request.getExpiryMonth()).isEqualTo(4);
+    assertThat(request.getExpiryYear()).isEqualTo(2030);
+    assertThat(request.getCurrency()).isEqualTo("GBP");
+    assertThat(request.getAmount()).isEqualTo(100);
+    assertThat(request.getCvv()).isEqualTo("123");
+    assertThat(request.expiryMonthValue()).isEqualTo(4);
+    assertThat(request.expiryYearValue()).isEqualTo(2030);
+    assertThat(request.amountValue()).isEqualTo(100);
+  }
+
+  @Test
+  void readerNeverClaimsResponses() {
+    assertThat(reader.canWrite(PostPaymentRequest.class, MediaType.APPLICATION_JSON)).isFalse();
+    assertThat(reader.canWrite(PostPaymentRequest.class, null)).isFalse();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "{\"card_number\":\"12\",\"expiry_month\":13,\"expiry_year\":2000,\"currency\":\"AAA\","
+          + "\"amount\":0,\"cvv\":\"x\"}",
+      "{\"card_number\":\"\",\"expiry_month\":null,\"expiry_year\":null,\"currency\":\"\","
+          + "\"amount\":-5,\"cvv\":\"\"}",
+      "{}",
+      "{\"card_number\":\"2222405343248877\",\"expiry_month\":1,\"expiry_year\":2001,"
+          + "\"currency\":\"usd\",\"amount\":\"7\",\"cvv\":\"12345\"}",
+      "{\"card_number\":2222405343248877,\"expiry_month\":0,\"expiry_year\":2030,"
+          + "\"currency\":\"EURO\",\"amount\":1.5,\"cvv\":\"12a\"}"
+  })
+  void invalidRequestReportsSameErrorsAsBeanValidation(String json) throws Exception {
+    PaymentValidationException ex = catchThrowableOfType(() -> read(json),
+        PaymentValidationException.class);
+
+    assertThat(ex).isNotNull();
+    assertThat(ex.getErrors()).containsExactlyInAnyOrderElementsOf(beanValidationErrors(json));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"[]", "{\"amount\":\"abc\"}", "{\"amount\":true}",
+      "{\"card_number\":[\"1\"]}", "{\"amount\":"})
+  void malformedRequestIsNotReadable(String json) {
+    assertThat(catchThrowableOfType(() -> read(json), HttpMessageNotReadableException.class))
+        .isNotNull();
+  }
+
+  private PostPaymentRequest read(String json) throws Exception {
+    MockHttpInputMessage message = new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+    message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    return reader.read(PostPaymentRequest.class, message);
+  }
+
+  // What the default Jackson + @Valid path reports for the same body
+  private List<String> beanValidationErrors(String json) throws Exception {
+    PostPaymentRequest bound = objectMapper.readValue(json, PostPaymentRequest.class);
+    return validator.validate(bound).stream()
+        .map(v -> (v.getPropertyPath().toString().isEmpty()
+            ? "postPaymentRequest" : v.getPropertyPath().toString()) + ": " + v.getMessage())
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class MerchantRateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+  @Test
+  void allowsBurstThenRejectsWithWaitTime() {
+    MerchantRateLimiter limiter = new MerchantRateLimiter(10, 5, 100, clock::get);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("merchant-a")).isZero();
+    }
+
+    long wait = limiter.tryAcquire("merchant-a");
+    assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+  }
+
+  @Test
+  void refillsAtConfiguredRate() {
+    MerchantRateLimiter limiter = new MerchantRateLimiter(10, 1, 100, clock::get);
+
+    assertThat(limiter.tryAcquire("merchant-a")).isZero();
+    assertThat(limiter.tryAcquire("merchant-a")).isPositive();
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(limiter.tryAcquire("merchant-a")).isZero();
+  }
+
+  @Test
+  void merchantsDoNotShareBuckets() {
+    MerchantRateLimiter limiter = new MerchantRateLimiter(1, 1, 100, clock::get);
+
+    assertThat(limiter.tryAcquire("merchant-a")).isZero();
+    assertThat(limiter.tryAcquire("merchant-a")).isPositive();
+    assertThat(limiter.tryAcquire("merchant-b")).isZero();
+  }
+
+  @Test
+  void sweepEvictsIdleBuckets() {
+    MerchantRateLimiter limiter = new MerchantRateLimiter(1000, 1, 100, clock::get);
+    limiter.tryAcquire("merchant-a");
+    limiter.tryAcquire("merchant-b");
+
+    limiter.evictIdle();
+    assertThat(limiter.trackedKeys()).isEqualTo(2);
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    limiter.evictIdle();
+    assertThat(limiter.trackedKeys()).isZero();
+  }
+
+  @Test
+  void newKeysShareOverflowBucketWhenFull() {
+    MerchantRateLimiter limiter = new MerchantRateLimiter(1, 1, 2, clock::get);
+    limiter.tryAcquire("merchant-a");
+    limiter.tryAcquire("merchant-b");
+
+    assertThat(limiter.tryAcquire("merchant-c")).isZero();
+    assertThat(limiter.tryAcquire("merchant-d")).isPositive();
+    assertThat(limiter.trackedKeys()).isEqualTo(2);
+  }
+}
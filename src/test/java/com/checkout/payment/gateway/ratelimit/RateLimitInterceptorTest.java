@@ -0,0 +1,58 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+// The body is invalid on purpose: an admitted request ends in 400 without calling the bank
+@SpringBootTest(properties = {
+    "rate-limit.enabled=true",
+    "rate-limit.requests-per-second=0.01",
+    "rate-limit.burst=1"
+})
+@AutoConfigureMockMvc
+class RateLimitInterceptorTest {
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Test
+  void whenMerchantExceedsLimitThen429WithRetryAfter() throws Exception {
+    mvc.perform(payment().header(RateLimitInterceptor.API_KEY_HEADER, "merchant-429"))
+        .andExpect(status().isBadRequest());
+
+    mvc.perform(payment().header(RateLimitInterceptor.API_KEY_HEADER, "merchant-429"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "100"))
+        .andExpect(jsonPath("$.code").value("RATE_LIMITED"));
+  }
+
+  @Test
+  void callersWithoutKeyAreLimitedPerClientAddress() throws Exception {
+    mvc.perform(payment().with(from("10.0.0.1"))).andExpect(status().isBadRequest());
+    mvc.perform(payment().with(from("10.0.0.1"))).andExpect(status().isTooManyRequests());
+
+    mvc.perform(payment().with(from("10.0.0.2"))).andExpect(status().isBadRequest());
+  }
+
+  private static MockHttpServletRequestBuilder payment() {
+    return post("/payments").contentType(MediaType.APPLICATION_JSON).content("{}");
+  }
+
+  private static RequestPostProcessor from(String address) {
+    return request -> {
+      request.setRemoteAddr(address);
+      return request;
+    };
+  }
+}
@@ -0,0 +1,103 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.ConcurrentRunner;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentRecord;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Concurrent adds and reads on {@link PaymentsRepository}, on their own and while a snapshot is
+ * restored in parallel. Every payment, live or restored, has to be kept.
+ */
+class PaymentsRepositoryConcurrencyTest {
+
+  private static final int PAYMENTS_PER_THREAD = 2_000;
+
+  @TempDir
+  Path directory;
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 4, 8, 16, 32, 64, 128})
+  void concurrentAddsAreAllKeptAndReadBack(int threads) throws Exception {
+    PaymentsRepository repository = new PaymentsRepository();
+
+    List<List<UUID>> written = ConcurrentRunner.run(threads, thread -> {
+      List<UUID> ids = new ArrayList<>(PAYMENTS_PER_THREAD);
+      for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+        PaymentRecord payment = payment(thread * PAYMENTS_PER_THREAD + i);
+        repository.add(payment);
+        ids.add(payment.getId());
+        // Read our own write and an earlier one while other threads keep writing
+        assertThat(repository.get(payment.getId())).containsSame(payment);
+        assertThat(repository.get(ids.get(i / 2))).isPresent();
+      }
+      return ids;
+    });
+
+    assertThat(repository.size()).isEqualTo(threads * PAYMENTS_PER_THREAD);
+    for (List<UUID> ids : written) {
+      for (UUID id : ids) {
+        assertThat(repository.get(id)).isPresent();
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {2, 8, 32})
+  void addsAndReadsDuringParallelRestoreKeepEveryPayment(int threads) throws Exception {
+    int snapshotted = 50_000;
+    PaymentsRepository source = new PaymentsRepository();
+    for (int i = 0; i < snapshotted; i++) {
+      source.add(payment(i));
+    }
+    Path file = directory.resolve("payments.snapshot");
+    PaymentsSnapshot.write(source.view(), file);
+
+    PaymentsRepository repository = new PaymentsRepository();
+    // Thread 0 restores on four threads of its own while the others take live traffic
+    List<List<PaymentRecord>> added = ConcurrentRunner.run(threads, thread -> {
+      if (thread == 0) {
+        PaymentsSnapshot.restore(file, 4, repository::restore);
+        return List.of();
+      }
+      List<PaymentRecord> payments = new ArrayList<>(PAYMENTS_PER_THREAD);
+      for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+        PaymentRecord payment = payment(snapshotted + thread * PAYMENTS_PER_THREAD + i);
+        repository.add(payment);
+        payments.add(payment);
+        assertThat(repository.get(payment.getId())).containsSame(payment);
+        assertThat(repository.get(payments.get(i / 2).getId())).isPresent();
+      }
+      return payments;
+    });
+
+    int live = 0;
+    for (List<PaymentRecord> payments : added) {
+      for (PaymentRecord payment : payments) {
+        assertThat(repository.get(payment.getId())).containsSame(payment);
+        live++;
+      }
+    }
+    assertThat(repository.size()).isEqualTo(snapshotted + live);
+    for (PaymentRecord original : source.view()) {
+      PaymentRecord restored = repository.get(original.getId()).orElseThrow();
+      assertThat(restored.getStatus()).isEqualTo(original.getStatus());
+      assertThat(restored.getAmount()).isEqualTo(original.getAmount());
+      assertThat(restored.getCardNumberLastFour()).isEqualTo("8877");
+    }
+  }
+
+  private static PaymentRecord payment(int index) {
+    return new PaymentRecord(UUID.randomUUID(),
+        index % 2 == 0 ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED, "8877", 4, 2030,
+        "GBP", 100L + index);
+  }
+}
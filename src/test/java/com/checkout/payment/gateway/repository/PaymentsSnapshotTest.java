@@ -0,0 +1,110 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentRecord;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PaymentsSnapshotTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void paymentsSurviveRestartThroughSnapshot() throws Exception {
+    PaymentsRepository before = new PaymentsRepository();
+    List<PaymentRecord> payments = addPayments(before, 10_000);
+    PaymentsSnapshotter first = snapshotter(before);
+    first.start();
+    assertThat(first.snapshot()).isEqualTo(10_000);
+    first.stop();
+
+    PaymentsRepository after = new PaymentsRepository();
+    snapshotter(after).start();
+
+    assertThat(after.size()).isEqualTo(10_000);
+    for (PaymentRecord payment : payments) {
+      assertThat(after.get(payment.getId())).get().usingRecursiveComparison().isEqualTo(payment);
+    }
+    assertThat(Files.exists(directory.resolve("payments.snapshot.tmp"))).isFalse();
+  }
+
+  @Test
+  void unchangedRepositoryIsNotWrittenAgain() throws Exception {
+    PaymentsRepository repository = new PaymentsRepository();
+    addPayments(repository, 3);
+    PaymentsSnapshotter snapshotter = snapshotter(repository);
+
+    assertThat(snapshotter.snapshot()).isEqualTo(3);
+    assertThat(snapshotter.snapshot()).isEqualTo(-1);
+    addPayments(repository, 1);
+    assertThat(snapshotter.snapshot()).isEqualTo(4);
+  }
+
+  @Test
+  void corruptRecordFailsRestore() throws Exception {
+    PaymentsRepository repository = new PaymentsRepository();
+    addPayments(repository, 100);
+    Path file = directory.resolve("payments.snapshot");
+    PaymentsSnapshot.write(repository.view(), file);
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {42}),
+          PaymentsSnapshot.HEADER_SIZE + 57L * PaymentsSnapshot.RECORD_SIZE + 20);
+    }
+
+    assertThatThrownBy(() -> PaymentsSnapshot.restore(file, 4, payment -> { }))
+        .isInstanceOf(IOException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void truncatedOrForeignFileIsRejected() throws Exception {
+    PaymentsRepository repository = new PaymentsRepository();
+    addPayments(repository, 10);
+    Path file = directory.resolve("payments.snapshot");
+    PaymentsSnapshot.write(repository.view(), file);
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 1);
+    }
+    assertThatThrownBy(() -> PaymentsSnapshot.restore(file, 2, payment -> { }))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("does not hold 10 records");
+
+    Files.write(file, new byte[PaymentsSnapshot.HEADER_SIZE]);
+    assertThatThrownBy(() -> PaymentsSnapshot.restore(file, 2, payment -> { }))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("not a payments snapshot");
+  }
+
+  private PaymentsSnapshotter snapshotter(PaymentsRepository repository) {
+    return new PaymentsSnapshotter(repository, true,
+        directory.resolve("payments.snapshot").toString(), 60_000, 4);
+  }
+
+  private static List<PaymentRecord> addPayments(PaymentsRepository repository, int count) {
+    PaymentStatus[] statuses = PaymentStatus.values();
+    List<PaymentRecord> payments = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      PaymentRecord payment = new PaymentRecord(UUID.randomUUID(), statuses[i % statuses.length],
+          String.format("%04d", i % 10_000), 1 + i % 12, 2030 + i % 5, i % 2 == 0 ? "GBP" : "JPY",
+          1_000_000_000_000L + i);
+      repository.add(payment);
+      payments.add(payment);
+    }
+    return payments;
+  }
+}
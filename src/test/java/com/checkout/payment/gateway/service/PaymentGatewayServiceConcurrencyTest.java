@@ -0,0 +1,121 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.ConcurrentRunner;
+import com.checkout.payment.gateway.bank.AcquiringBankClient;
+import com.checkout.payment.gateway.bank.model.BankPaymentResponse;
+import com.checkout.payment.gateway.currency.FxRates;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.model.PaymentRecord;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Many threads racing {@link PaymentGatewayService#processPayment} against a bank stub that
+ * takes a few milliseconds per call, so calls from different threads overlap.
+ */
+class PaymentGatewayServiceConcurrencyTest {
+
+  private static final int PAYMENTS_PER_THREAD = 25;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final PaymentsRepository paymentsRepository = new PaymentsRepository();
+  private final AtomicInteger bankCalls = new AtomicInteger();
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 8, 32, 128})
+  void racingPaymentsAreEachAuthorizedAndStoredOnce(int threads) throws Exception {
+    PaymentGatewayService service =
+        service(slowBank(2), DuplicatePaymentGuard.disabled(meterRegistry));
+
+    List<List<PostPaymentResponse>> results = ConcurrentRunner.run(threads, thread -> {
+      List<PostPaymentResponse> responses = new ArrayList<>(PAYMENTS_PER_THREAD);
+      for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+        responses.add(service.processPayment(
+            request(thread * PAYMENTS_PER_THREAD + i), "merchant-" + thread, deadline()));
+      }
+      return responses;
+    });
+
+    int total = threads * PAYMENTS_PER_THREAD;
+    Set<UUID> ids = new HashSet<>();
+    for (List<PostPaymentResponse> responses : results) {
+      for (PostPaymentResponse response : responses) {
+        assertThat(response.getStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
+        assertThat(paymentsRepository.get(response.getId())).get()
+            .usingRecursiveComparison().isEqualTo(PaymentRecord.of(response));
+        ids.add(response.getId());
+      }
+    }
+    assertThat(ids).hasSize(total);
+    assertThat(paymentsRepository.size()).isEqualTo(total);
+    assertThat(bankCalls).hasValue(total);
+  }
+
+  @Test
+  void identicalPaymentsRacingJoinOneAuthorization() throws Exception {
+    DuplicatePaymentGuard guard = new DuplicatePaymentGuard(true, DuplicatePaymentGuard.Mode.JOIN,
+        2000, 64, 256, "salt", meterRegistry);
+    PaymentGatewayService service = service(slowBank(50), guard);
+
+    List<PostPaymentResponse> responses = ConcurrentRunner.run(64,
+        thread -> service.processPayment(request(1050), "merchant-a", deadline()));
+
+    assertThat(bankCalls).hasValue(1);
+    assertThat(responses).extracting(PostPaymentResponse::getId).containsOnly(
+        responses.get(0).getId());
+    assertThat(paymentsRepository.size()).isEqualTo(1);
+  }
+
+  private PaymentGatewayService service(AcquiringBankClient bank, DuplicatePaymentGuard guard) {
+    return new PaymentGatewayService(paymentsRepository, bank,
+        new PaymentEventLog(false, "", 1, 1, false, meterRegistry), guard, FxRates.disabled());
+  }
+
+  private AcquiringBankClient slowBank(long latencyMillis) {
+    AcquiringBankClient bank = mock(AcquiringBankClient.class);
+    when(bank.submitPayment(any(), any())).thenAnswer(invocation -> {
+      bankCalls.incrementAndGet();
+      TimeUnit.MILLISECONDS.sleep(latencyMillis);
+      BankPaymentResponse response = new BankPaymentResponse();
+      response.setAuthorized(true);
+      return response;
+    });
+    return bank;
+  }
+
+  private static Deadline deadline() {
+    return Deadline.after(Duration.ofSeconds(30));
+  }
+
+  private static PostPaymentRequest request(long amount) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(amount);
+    request.setCvv("123");
+    return request;
+  }
+}
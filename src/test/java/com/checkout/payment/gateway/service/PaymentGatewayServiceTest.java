@@ -3,25 +3,40 @@ package com.checkout.payment.gateway.service;
 import com.checkout.payment.gateway.bank.AcquiringBankClient;
 import com.checkout.payment.gateway.bank.model.BankPaymentRequest;
 import com.checkout.payment.gateway.bank.model.BankPaymentResponse;
+import com.checkout.payment.gateway.currency.FxRateTable;
+import com.checkout.payment.gateway.currency.FxRates;
+import com.checkout.payment.gateway.currency.IsoCurrency;
+import com.checkout.payment.gateway.deadline.Deadline;
+import com.checkout.payment.gateway.dedup.DuplicatePaymentGuard;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.events.PaymentEvent;
+import com.checkout.payment.gateway.events.PaymentEventLog;
 import com.checkout.payment.gateway.exception.AcquiringBankUnavailableException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
 import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.PaymentValidationException;
+import com.checkout.payment.gateway.model.PaymentRecord;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,20 +44,34 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class PaymentGatewayServiceTest {
 
+  private static final Deadline DEADLINE = Deadline.after(Duration.ofMinutes(1));
+
   @Mock
   private PaymentsRepository paymentsRepository;
 
   @Mock
   private AcquiringBankClient acquiringBankClient;
 
-  @InjectMocks
+  @Mock
+  private PaymentEventLog paymentEventLog;
+
   private PaymentGatewayService paymentGatewayService;
 
   @Captor
   private ArgumentCaptor<BankPaymentRequest> bankRequestCaptor;
 
   @Captor
-  private ArgumentCaptor<PostPaymentResponse> savedPaymentCaptor;
+  private ArgumentCaptor<PaymentRecord> savedPaymentCaptor;
+
+  @Captor
+  private ArgumentCaptor<PaymentEvent> eventCaptor;
+
+  @BeforeEach
+  void setUp() {
+    paymentGatewayService = new PaymentGatewayService(paymentsRepository, acquiringBankClient,
+        paymentEventLog, DuplicatePaymentGuard.disabled(new SimpleMeterRegistry()),
+        FxRates.disabled());
+  }
 
   @Test
   void processPayment_whenBankAuthorizes_returnsAuthorizedAndStoresMaskedDetails() {
@@ -51,9 +80,9 @@ class PaymentGatewayServiceTest {
     BankPaymentResponse bankResponse = new BankPaymentResponse();
     bankResponse.setAuthorized(true);
     bankResponse.setAuthorizationCode("auth-code");
-    when(acquiringBankClient.submitPayment(any())).thenReturn(bankResponse);
+    when(acquiringBankClient.submitPayment(any(), any())).thenReturn(bankResponse);
 
-    PostPaymentResponse res = paymentGatewayService.processPayment(req);
+    PostPaymentResponse res = paymentGatewayService.processPayment(req, null, DEADLINE);
 
     // status + masking
     assertThat(res.getStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
@@ -65,7 +94,7 @@ class PaymentGatewayServiceTest {
     assertThat(res.getId()).isNotNull();
 
     // bank request mapping (incl. expiry formatting)
-    verify(acquiringBankClient).submitPayment(bankRequestCaptor.capture());
+    verify(acquiringBankClient).submitPayment(bankRequestCaptor.capture(), any());
     BankPaymentRequest bankReq = bankRequestCaptor.getValue();
     assertThat(bankReq.getCardNumber()).isEqualTo("2222405343248877");
     assertThat(bankReq.getExpiryDate()).isEqualTo("04/2030");
@@ -75,9 +104,14 @@ class PaymentGatewayServiceTest {
 
     // stored payment matches response (gateway stores last4 only via response object)
     verify(paymentsRepository).add(savedPaymentCaptor.capture());
-    PostPaymentResponse saved = savedPaymentCaptor.getValue();
+    PaymentRecord saved = savedPaymentCaptor.getValue();
+    assertThat(saved.getId()).isEqualTo(res.getId());
     assertThat(saved.getCardNumberLastFour()).isEqualTo("8877");
     assertThat(saved.getStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
+
+    verify(paymentEventLog).append(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getPaymentId()).isEqualTo(res.getId());
+    assertThat(eventCaptor.getValue().getStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
   }
 
   @Test
@@ -87,42 +121,108 @@ class PaymentGatewayServiceTest {
     BankPaymentResponse bankResponse = new BankPaymentResponse();
     bankResponse.setAuthorized(false);
     bankResponse.setAuthorizationCode("whatever");
-    when(acquiringBankClient.submitPayment(any())).thenReturn(bankResponse);
+    when(acquiringBankClient.submitPayment(any(), any())).thenReturn(bankResponse);
 
-    PostPaymentResponse res = paymentGatewayService.processPayment(req);
+    PostPaymentResponse res = paymentGatewayService.processPayment(req, null, DEADLINE);
 
     assertThat(res.getStatus()).isEqualTo(PaymentStatus.DECLINED);
     assertThat(res.getCardNumberLastFour()).isEqualTo("8878");
-    verify(paymentsRepository).add(any(PostPaymentResponse.class));
+    verify(paymentsRepository).add(any(PaymentRecord.class));
   }
 
   @Test
   void processPayment_whenBankUnavailable_propagatesException() {
     PostPaymentRequest req = request("2222405343248870", 1, 2030, "EUR", 100, "999");
-    when(acquiringBankClient.submitPayment(any())).thenThrow(
+    when(acquiringBankClient.submitPayment(any(), any())).thenThrow(
         new AcquiringBankUnavailableException("down"));
 
-    assertThatThrownBy(() -> paymentGatewayService.processPayment(req))
+    assertThatThrownBy(() -> paymentGatewayService.processPayment(req, null, DEADLINE))
         .isInstanceOf(AcquiringBankUnavailableException.class);
 
     verify(paymentsRepository, never()).add(any());
+    verify(paymentEventLog, never()).append(any());
+  }
+
+  @Test
+  void processPayment_whenBankCallThrowsError_releasesDuplicateSlot() {
+    paymentGatewayService = new PaymentGatewayService(paymentsRepository, acquiringBankClient,
+        paymentEventLog, new DuplicatePaymentGuard(true, DuplicatePaymentGuard.Mode.REJECT, 2000,
+            1, 8, "", new SimpleMeterRegistry()), FxRates.disabled());
+    PostPaymentRequest req = request("2222405343248877", 4, 2030, "GBP", 100, "123");
+    BankPaymentResponse bankResponse = new BankPaymentResponse();
+    bankResponse.setAuthorized(true);
+    when(acquiringBankClient.submitPayment(any(), any()))
+        .thenThrow(new StackOverflowError())
+        .thenReturn(bankResponse);
+
+    assertThatThrownBy(() -> paymentGatewayService.processPayment(req, null, DEADLINE))
+        .isInstanceOf(StackOverflowError.class);
+
+    // A retry is authorized afresh rather than refused as a duplicate of the failed attempt
+    PostPaymentResponse res = paymentGatewayService.processPayment(req, null, DEADLINE);
+    assertThat(res.getStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
+  }
+
+  @Test
+  void processPayment_whenConvertedAmountWouldOverflow_rejectsWithoutCallingBank() {
+    FxRates fxRates = mock(FxRates.class);
+    when(fxRates.isEnabled()).thenReturn(true);
+    when(fxRates.getSettlementCurrency()).thenReturn(IsoCurrency.JPY);
+    when(fxRates.current()).thenReturn(new FxRateTable(Map.of(
+        IsoCurrency.GBP, BigDecimal.ONE,
+        IsoCurrency.JPY, new BigDecimal("190.5"))));
+    paymentGatewayService = new PaymentGatewayService(paymentsRepository, acquiringBankClient,
+        paymentEventLog, DuplicatePaymentGuard.disabled(new SimpleMeterRegistry()), fxRates);
+    PostPaymentRequest req = request("2222405343248877", 4, 2030, "GBP", Long.MAX_VALUE, "123");
+
+    assertThatThrownBy(() -> paymentGatewayService.processPayment(req, null, DEADLINE))
+        .isInstanceOf(PaymentValidationException.class);
+
+    verify(acquiringBankClient, never()).submitPayment(any(), any());
+  }
+
+  @Test
+  void processPayment_whenConvertedAmountRoundsToZero_rejectsWithoutCallingBank() {
+    FxRates fxRates = mock(FxRates.class);
+    when(fxRates.isEnabled()).thenReturn(true);
+    when(fxRates.getSettlementCurrency()).thenReturn(IsoCurrency.GBP);
+    when(fxRates.current()).thenReturn(new FxRateTable(Map.of(
+        IsoCurrency.GBP, BigDecimal.ONE,
+        IsoCurrency.JPY, new BigDecimal("250"))));
+    paymentGatewayService = new PaymentGatewayService(paymentsRepository, acquiringBankClient,
+        paymentEventLog, DuplicatePaymentGuard.disabled(new SimpleMeterRegistry()), fxRates);
+    // 1 yen is 0.4 pence, which rounds to 0
+    PostPaymentRequest req = request("2222405343248877", 4, 2030, "JPY", 1, "123");
+
+    assertThatThrownBy(() -> paymentGatewayService.processPayment(req, null, DEADLINE))
+        .isInstanceOfSatisfying(PaymentValidationException.class, ex ->
+            assertThat(ex.getErrors()).containsExactly(
+                "amount: Amount is too small to settle in GBP"));
+
+    verify(acquiringBankClient, never()).submitPayment(any(), any());
+  }
+
+  @Test
+  void processPayment_whenDeadlineAlreadyExpired_skipsBankCall() {
+    PostPaymentRequest req = request("2222405343248877", 4, 2030, "GBP", 100, "123");
+
+    Deadline expired = Deadline.after(Duration.ZERO);
+    assertThatThrownBy(() -> paymentGatewayService.processPayment(req, null, expired))
+        .isInstanceOf(DeadlineExceededException.class);
+
+    verify(acquiringBankClient, never()).submitPayment(any(), any());
+    verify(paymentsRepository, never()).add(any());
   }
 
   @Test
   void getPaymentById_whenFound_returnsPayment() {
     UUID id = UUID.randomUUID();
-    PostPaymentResponse stored = new PostPaymentResponse();
-    stored.setId(id);
-    stored.setStatus(PaymentStatus.AUTHORIZED);
-    stored.setCardNumberLastFour("1234");
-    stored.setExpiryMonth(1);
-    stored.setExpiryYear(2030);
-    stored.setCurrency("GBP");
-    stored.setAmount(100);
+    PaymentRecord stored =
+        new PaymentRecord(id, PaymentStatus.AUTHORIZED, "1234", 1, 2030, "GBP", 100);
 
     when(paymentsRepository.get(id)).thenReturn(Optional.of(stored));
 
-    PostPaymentResponse res = paymentGatewayService.getPaymentById(id);
+    PaymentRecord res = paymentGatewayService.getPaymentById(id);
 
     assertThat(res).isSameAs(stored);
     verify(paymentsRepository).get(id);
@@ -140,7 +240,7 @@ class PaymentGatewayServiceTest {
   }
 
   private static PostPaymentRequest request(String cardNumber, int expiryMonth, int expiryYear,
-      String currency, int amount, String cvv) {
+      String currency, long amount, String cvv) {
     PostPaymentRequest req = new PostPaymentRequest();
     req.setCardNumber(cardNumber);
     req.setExpiryMonth(expiryMonth);
@@ -0,0 +1,98 @@
+package com.checkout.payment.gateway.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SlowTraceRecorderTest {
+
+  private final OtlpFileExporter exporter = new OtlpFileExporter(new ObjectMapper(), "");
+
+  @Test
+  void requestsUnderThresholdAreNotKept() {
+    SlowTraceRecorder recorder = new SlowTraceRecorder(0.99, 60_000, 1024, 4, exporter);
+
+    recorder.complete(finished("/payments", 200));
+
+    assertThat(recorder.slowTraces()).isEmpty();
+  }
+
+  @Test
+  void ringKeepsNewestSlowTraces() {
+    SlowTraceRecorder recorder = new SlowTraceRecorder(0.99, 0, 1024, 2, exporter);
+
+    recorder.complete(finished("/payments/1", 200));
+    recorder.complete(finished("/payments/2", 200));
+    recorder.complete(finished("/payments/3", 200));
+
+    assertThat(recorder.slowTraces()).extracting(RequestTrace::getPath)
+        .containsExactly("/payments/3", "/payments/2");
+  }
+
+  @Test
+  void thresholdFollowsTailOfRecentLatency() {
+    LatencyThreshold threshold = new LatencyThreshold(0.99, TimeUnit.MILLISECONDS.toNanos(1), 100);
+    for (int i = 0; i < 100; i++) {
+      threshold.record(TimeUnit.MILLISECONDS.toNanos(i < 98 ? 2 : 200));
+    }
+    long slow = threshold.thresholdNanos();
+    assertThat(slow).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(200));
+
+    for (int i = 0; i < 1000; i++) {
+      threshold.record(TimeUnit.MILLISECONDS.toNanos(2));
+    }
+    assertThat(threshold.thresholdNanos()).isLessThan(slow)
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(2));
+  }
+
+  @Test
+  void exportsStagesAsChildSpansOfRequestSpan() {
+    RequestTrace trace = new RequestTrace("POST", "/payments");
+    long started = System.nanoTime();
+    trace.recordStage("bank.submitPayment", started, started + 1_000);
+    trace.finish(502);
+    RequestTrace captured = trace.capture();
+
+    JsonNode spans = exporter.toOtlp(captured)
+        .at("/resourceSpans/0/scopeSpans/0/spans");
+
+    assertThat(spans).hasSize(2);
+    assertThat(spans.get(0).get("name").asText()).isEqualTo("POST /payments");
+    assertThat(spans.get(0).at("/status/code").asInt()).isEqualTo(2);
+    assertThat(spans.get(1).get("name").asText()).isEqualTo("bank.submitPayment");
+    assertThat(spans.get(1).get("parentSpanId")).isEqualTo(spans.get(0).get("spanId"));
+    assertThat(spans.get(1).get("traceId").asText()).isEqualTo(captured.getTraceId()).hasSize(32);
+  }
+
+  @Test
+  void keptTracesAreCopiedSoTheRequestThreadCanReuseItsTrace() {
+    SlowTraceRecorder recorder = new SlowTraceRecorder(0.99, 0, 1024, 4, exporter);
+    RequestTrace trace = new RequestTrace();
+    trace.begin("POST", "/payments");
+    long started = System.nanoTime();
+    trace.recordStage("bank.submitPayment", started, started + 1_000);
+    trace.finish(200);
+
+    recorder.complete(trace);
+    trace.begin("GET", "/payments/1");
+    trace.finish(200);
+
+    RequestTrace kept = recorder.slowTraces().get(0);
+    assertThat(kept).isNotSameAs(trace);
+    assertThat(kept.getPath()).isEqualTo("/payments");
+    assertThat(kept.getStageCount()).isEqualTo(1);
+    assertThat(kept.getStageName(0)).isEqualTo("bank.submitPayment");
+    assertThat(kept.getTraceId()).hasSize(32);
+    assertThat(trace.getTraceId()).isNull();
+    assertThat(trace.getStageCount()).isZero();
+  }
+
+  private static RequestTrace finished(String path, int status) {
+    RequestTrace trace = new RequestTrace("GET", path);
+    trace.finish(status);
+    return trace;
+  }
+}
@@ -0,0 +1,52 @@
+package com.checkout.payment.gateway.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.checkout.payment.gateway.bank.AcquiringBankClient;
+import com.checkout.payment.gateway.events.PaymentEventLog;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+@SpringBootTest(properties = {
+    "warmup.enabled=true",
+    "warmup.iterations=5",
+    "acquiring-bank.base-url=http://bank.test" // warm-up must never call the configured bank
+})
+class WarmupRunnerTest {
+
+  @Autowired
+  private WarmupRunner warmupRunner;
+  @SpyBean
+  private PaymentsRepository paymentsRepository;
+  @SpyBean
+  private AcquiringBankClient acquiringBankClient;
+  @SpyBean
+  private PaymentEventLog paymentEventLog;
+
+  @Test
+  void warmupDrivesPaymentPathAgainstLocalStub() throws Exception {
+    // Ran once during startup, with one stub authorization per iteration
+    assertThat(warmupRunner.stubAuthorizations()).isEqualTo(5);
+    assertRealBeansUntouched();
+
+    // Running again must stay just as self-contained
+    warmupRunner.run(new DefaultApplicationArguments());
+
+    assertThat(warmupRunner.stubAuthorizations()).isEqualTo(10);
+    assertRealBeansUntouched();
+  }
+
+  private void assertRealBeansUntouched() {
+    assertThat(paymentsRepository.size()).isZero();
+    verify(paymentsRepository, never()).add(any());
+    verify(acquiringBankClient, never()).submitPayment(any(), any());
+    verify(paymentEventLog, never()).append(any());
+  }
+}